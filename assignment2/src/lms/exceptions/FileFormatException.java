@@ -36,6 +36,21 @@ public class FileFormatException extends Exception {
         super(message + " (line: " + lineNum + ")");
     }
 
+    /**
+     * Constructs a new FileFormatException with the specified detail message, line number and
+     * column. These are used to construct a message for the superclass, in the format: "message
+     * text (line: line number, column: column number)"
+     *
+     * @param message A String containing the detail message (which is saved for later retrieval by
+     *                the getMessage() method)
+     * @param lineNum An integer containing the line number where the exception occurred
+     * @param column  An integer containing the column (starting from 1) where the exception
+     *                occurred
+     */
+    public FileFormatException(String message, int lineNum, int column) {
+        super(message + " (line: " + lineNum + ", column: " + column + ")");
+    }
+
     /**
      * Constructs a new FileFormatException with the specified detail message, line number, and cause.
      * Message and line number should be used to construct a message for the superclass, in the
@@ -1,8 +1,5 @@
 package lms.grid;
 
-
-import java.util.*;
-
 /**
  * This is the Coordinate class, which is used to represent coordinates on a hexagonal grid. (If you
  * have read the GameLoader class, this is not the same as the positional id which is generated when
@@ -45,16 +42,68 @@ public class Coordinate {
     private final int cordS;
 
     /**
-     * A Map that tracks how to calculate each of the cardinal directions of the coordinate system.
+     * The hash code of this coordinate, computed once on construction
+     */
+    private final int hash;
+
+    /**
+     * Largest |q|, |r| and |s| of the coordinates kept in CACHE.
+     */
+    private static final int CACHE_RANGE = 64;
+
+    /**
+     * Canonical instances of the coordinates within CACHE_RANGE of the origin, created on first
+     * use by {@link #of(int, int)}. Laid out like {@link HexStorage}: row by row, from the top.
      */
-    private static final Map<Orientation, Coordinate> directions = Map.ofEntries(
-            Map.entry(Orientation.TOP_LEFT, new Coordinate(0, -1, +1)),
-            Map.entry(Orientation.TOP_RIGHT, new Coordinate(+1, -1, 0)),
-            Map.entry(Orientation.RIGHT, new Coordinate(+1, 0, -1)),
-            Map.entry(Orientation.BOTTOM_RIGHT, new Coordinate(0, +1, -1)),
-            Map.entry(Orientation.BOTTOM_LEFT, new Coordinate(-1, +1, 0)),
-            Map.entry(Orientation.LEFT, new Coordinate(-1, 0, +1))
-    );
+    private static final Coordinate[] CACHE =
+            new Coordinate[3 * CACHE_RANGE * (CACHE_RANGE + 1) + 1];
+
+    /**
+     * Index in CACHE of the first coordinate of each row, indexed by r + CACHE_RANGE.
+     */
+    private static final int[] CACHE_ROW_START = new int[2 * CACHE_RANGE + 1];
+
+    /**
+     * The q offset of one step in each direction, indexed by {@link Orientation#ordinal()}.
+     */
+    private static final int[] OFFSET_Q = new int[Orientation.values().length];
+
+    /**
+     * The r offset of one step in each direction, indexed by {@link Orientation#ordinal()}.
+     */
+    private static final int[] OFFSET_R = new int[Orientation.values().length];
+
+    /**
+     * The direction of each (q, r, s) step whose components are all in {-1, 0, 1}, indexed by
+     * {@link #signIndex(int, int, int)}, or null if the step is not one of the six directions.
+     */
+    private static final Orientation[] DIRECTIONS = new Orientation[27];
+
+    static {
+        for (int r = -CACHE_RANGE; r < CACHE_RANGE; r++) {
+            CACHE_ROW_START[r + CACHE_RANGE + 1] =
+                    CACHE_ROW_START[r + CACHE_RANGE] + 2 * CACHE_RANGE + 1 - Math.abs(r);
+        }
+        setDirection(Orientation.TOP_LEFT, 0, -1);
+        setDirection(Orientation.TOP_RIGHT, +1, -1);
+        setDirection(Orientation.RIGHT, +1, 0);
+        setDirection(Orientation.BOTTOM_RIGHT, 0, +1);
+        setDirection(Orientation.BOTTOM_LEFT, -1, +1);
+        setDirection(Orientation.LEFT, -1, 0);
+    }
+
+    /**
+     * Records the axial offset of one step in the given direction.
+     *
+     * @param direction the direction being defined
+     * @param q         the q offset of one step
+     * @param r         the r offset of one step
+     */
+    private static void setDirection(Orientation direction, int q, int r) {
+        OFFSET_Q[direction.ordinal()] = q;
+        OFFSET_R[direction.ordinal()] = r;
+        DIRECTIONS[signIndex(q, r, -q - r)] = direction;
+    }
 
     /**
      * This should be the origin Coordinate, A special coordinate that must exist in every game map.
@@ -75,6 +124,7 @@ public class Coordinate {
         this.cordQ = x;
         this.cordR = y;
         this.cordS = z;
+        this.hash = 31 * (31 * (31 + x) + y) + z;
     }
 
     /***
@@ -87,13 +137,65 @@ public class Coordinate {
     }
 
 
+    /**
+     * Returns the Coordinate (q, r, -q - r). Coordinates near the origin are shared: asking for the
+     * same position twice returns the same instance, so that comparing them with
+     * {@link #equals(Object)} usually stops at the identity check. Coordinates further away than
+     * the cache covers are created on every call, as by {@link #Coordinate(int, int)}.
+     *
+     * @param q the q component
+     * @param r the r component
+     * @return the coordinate at (q, r)
+     */
+    public static Coordinate of(int q, int r) {
+        int s = -q - r;
+        if (Math.abs(q) > CACHE_RANGE || Math.abs(r) > CACHE_RANGE || Math.abs(s) > CACHE_RANGE) {
+            return new Coordinate(q, r, s);
+        }
+        int index = CACHE_ROW_START[r + CACHE_RANGE] + q - Math.max(-CACHE_RANGE, -CACHE_RANGE - r);
+        Coordinate coordinate = CACHE[index];
+        if (coordinate == null) {
+            // a race here only creates an equal instance, which is harmless
+            coordinate = new Coordinate(q, r, s);
+            CACHE[index] = coordinate;
+        }
+        return coordinate;
+    }
+
+    /**
+     * Returns the q (first) component of this Coordinate.
+     *
+     * @return the q component.
+     */
+    public int getQ() {
+        return cordQ;
+    }
+
+    /**
+     * Returns the r (second) component of this Coordinate.
+     *
+     * @return the r component.
+     */
+    public int getR() {
+        return cordR;
+    }
+
+    /**
+     * Returns the s (third) component of this Coordinate.
+     *
+     * @return the s component.
+     */
+    public int getS() {
+        return cordS;
+    }
+
     /**
      * Returns the hash code for this Coordinate object.
      *
      * @return the hash code for this Coordinate object.
      */
     public int hashCode() {
-        return Objects.hash(cordQ, cordR, cordS);
+        return hash;
     }
 
     /**
@@ -115,6 +217,138 @@ public class Coordinate {
         return this.cordQ == that.cordQ && this.cordR == that.cordR && this.cordS == that.cordS;
     }
 
+    /**
+     * Packs an axial position into a single long, for use as a key that does not need a Coordinate
+     * to be allocated. The q component is held in the high 32 bits and r in the low 32 bits.
+     *
+     * @param q the q component
+     * @param r the r component
+     * @return the packed key of (q, r)
+     */
+    public static long pack(int q, int r) {
+        return ((long) q << 32) | (r & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the q component of a key made by {@link #pack(int, int)}.
+     *
+     * @param key the packed key
+     * @return the q component
+     */
+    public static int unpackQ(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Returns the r component of a key made by {@link #pack(int, int)}.
+     *
+     * @param key the packed key
+     * @return the r component
+     */
+    public static int unpackR(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Returns the packed key of this Coordinate.
+     *
+     * @return the key of this Coordinate, as made by {@link #pack(int, int)}
+     */
+    public long getKey() {
+        return pack(cordQ, cordR);
+    }
+
+    /**
+     * Returns the key of the position one step from the given key in the given direction.
+     *
+     * @param key       the packed key to step from
+     * @param direction the direction to step in
+     * @return the packed key of the neighbouring position
+     */
+    public static long neighbour(long key, Orientation direction) {
+        return pack(unpackQ(key) + OFFSET_Q[direction.ordinal()],
+                unpackR(key) + OFFSET_R[direction.ordinal()]);
+    }
+
+    /**
+     * Returns the q offset of one step in the given direction.
+     *
+     * @param direction the direction of the step
+     * @return the change in q
+     */
+    public static int getOffsetQ(Orientation direction) {
+        return OFFSET_Q[direction.ordinal()];
+    }
+
+    /**
+     * Returns the r offset of one step in the given direction.
+     *
+     * @param direction the direction of the step
+     * @return the change in r
+     */
+    public static int getOffsetR(Orientation direction) {
+        return OFFSET_R[direction.ordinal()];
+    }
+
+    /**
+     * Returns the direction of a step from one position to another, where the step is normalised
+     * so that each of its components is -1, 0 or 1.
+     *
+     * @param dq the change in q
+     * @param dr the change in r
+     * @param ds the change in s
+     * @return the direction of travel, or null if the normalised step is not one of the six
+     * directions
+     */
+    private static Orientation directionOf(int dq, int dr, int ds) {
+        return DIRECTIONS[signIndex(Integer.signum(dq), Integer.signum(dr), Integer.signum(ds))];
+    }
+
+    /**
+     * Returns the index in DIRECTIONS of a step whose components are all in {-1, 0, 1}.
+     *
+     * @param q the q component of the step
+     * @param r the r component of the step
+     * @param s the s component of the step
+     * @return the index of the step
+     */
+    private static int signIndex(int q, int r, int s) {
+        return (q + 1) * 9 + (r + 1) * 3 + (s + 1);
+    }
+
+    /**
+     * Returns true if the two axial positions are next to each other.
+     *
+     * @param q1 the q component of the first position
+     * @param r1 the r component of the first position
+     * @param q2 the q component of the second position
+     * @param r2 the r component of the second position
+     * @return true if (q2, r2) is one step from (q1, r1)
+     */
+    public static boolean isNeighbour(int q1, int r1, int q2, int r2) {
+        int dq = q2 - q1;
+        int dr = r2 - r1;
+        return Math.abs(dq) <= 1 && Math.abs(dr) <= 1 && Math.abs(dq + dr) <= 1
+                && (dq != 0 || dr != 0);
+    }
+
+    /**
+     * Returns the coordinate that is one step in the given direction from this coordinate.
+     *
+     * @param direction the direction to step in
+     * @return The coordinate that is one step in the given direction.
+     */
+    public Coordinate getNeighbour(Orientation direction) {
+        int q = cordQ + OFFSET_Q[direction.ordinal()];
+        int r = cordR + OFFSET_R[direction.ordinal()];
+        if (cordQ + cordR + cordS != 0) {
+            // not a valid cube coordinate, so there is no canonical instance to share
+            return new Coordinate(q, r, cordS - OFFSET_Q[direction.ordinal()]
+                    - OFFSET_R[direction.ordinal()]);
+        }
+        return of(q, r);
+    }
+
     /**
      * Returns the coordinate that is one step to the left of the current coordinate in the given
      * directions.
@@ -122,7 +356,7 @@ public class Coordinate {
      * @return The coordinate that is one step to the left of the current coordinate.
      */
     public Coordinate getLeft() {
-        return add(directions.get(Orientation.LEFT));
+        return getNeighbour(Orientation.LEFT);
     }
 
     /**
@@ -132,7 +366,7 @@ public class Coordinate {
      * @return The coordinate that is one step to the right of the current coordinate.
      */
     public Coordinate getRight() {
-        return add(directions.get(Orientation.RIGHT));
+        return getNeighbour(Orientation.RIGHT);
     }
 
     /**
@@ -142,7 +376,7 @@ public class Coordinate {
      * @return The coordinate that is one step to the top-left of the current coordinate.
      */
     public Coordinate getTopLeft() {
-        return add(directions.get(Orientation.TOP_LEFT));
+        return getNeighbour(Orientation.TOP_LEFT);
     }
 
     /**
@@ -152,7 +386,7 @@ public class Coordinate {
      * @return The coordinate that is one step to the top-right of the current coordinate.
      */
     public Coordinate getTopRight() {
-        return add(directions.get(Orientation.TOP_RIGHT));
+        return getNeighbour(Orientation.TOP_RIGHT);
     }
 
     /**
@@ -162,7 +396,7 @@ public class Coordinate {
      * @return The coordinate that is one step to the bottom-left of the current coordinate.
      */
     public Coordinate getBottomLeft() {
-        return add(directions.get(Orientation.BOTTOM_LEFT));
+        return getNeighbour(Orientation.BOTTOM_LEFT);
     }
 
     /**
@@ -172,35 +406,9 @@ public class Coordinate {
      * @return The coordinate that is one step to the bottom-right of the current coordinate.
      */
     public Coordinate getBottomRight() {
-        return add(directions.get(Orientation.BOTTOM_RIGHT));
+        return getNeighbour(Orientation.BOTTOM_RIGHT);
     }
 
-    /**
-     * Returns a new Coordinate object that is the result of adding the given vector to this
-     * Coordinate object.
-     *
-     * @param vector the vector to add to this Coordinate object.
-     * @return a new Coordinate object that is the result of adding the given vector to this
-     * Coordinate object.
-     */
-    private Coordinate add(Coordinate vector) {
-        return new Coordinate(cordQ + vector.cordQ, cordR + vector.cordR, cordS + vector.cordS);
-
-    }
-
-    /**
-     * Returns a new Coordinate object that is the result of subtracting the given vector from this
-     * Coordinate object.
-     *
-     * @param vector the vector to subtract from this Coordinate object.
-     * @return a new Coordinate object that is the result of subtracting the given vector from this
-     * Coordinate object.
-     */
-    private Coordinate subtract(Coordinate vector) {
-        return new Coordinate(cordQ - vector.cordQ, cordR - vector.cordR, cordS - vector.cordS);
-    }
-
-
     /**
      * Returns true if the given Coordinate object is a neighbour of this Coordinate object, false
      * otherwise.
@@ -210,8 +418,11 @@ public class Coordinate {
      * otherwise.
      */
     public boolean isNeighbour(Coordinate coordinate) {
-        Coordinate vector = subtract(coordinate);
-        return directions.containsValue(vector);
+        int dq = cordQ - coordinate.cordQ;
+        int dr = cordR - coordinate.cordR;
+        int ds = cordS - coordinate.cordS;
+        return Math.abs(dq) <= 1 && Math.abs(dr) <= 1 && Math.abs(ds) <= 1
+                && DIRECTIONS[signIndex(dq, dr, ds)] != null;
     }
 
     /**
@@ -226,34 +437,15 @@ public class Coordinate {
     public Orientation getDirection(Coordinate coordinate) {
 
         /*
-         * vector is the direction you would need to travel to get
-         * from this coordinate to the next
+         * the sign of each component of the vector is the direction you would need to travel to
+         * get from this coordinate to the next
          */
-        Coordinate vector = normalise(coordinate.subtract(this));
-
-        List<Orientation> ors = directions.entrySet().stream()
-                .filter(entry -> entry.getValue().equals(vector))
-                .map(Map.Entry::getKey)
-                .toList();
-        if (ors.size() != 1) {
+        Orientation direction = directionOf(coordinate.cordQ - cordQ,
+                coordinate.cordR - cordR, coordinate.cordS - cordS);
+        if (direction == null) {
             throw new RuntimeException("Got incorrect directions from one coordinate");
         }
-        return ors.get(0);
+        return direction;
     }
 
-    /**
-     * Returns the normalised coordinate
-     *
-     * @param vector Coordinate (a) q r s
-     * @return Coordinate normalised (for getDirection)
-     */
-    private Coordinate normalise(Coordinate vector) {
-        return new Coordinate(
-                vector.cordQ / Math.max(Math.abs(vector.cordQ), 1),
-                vector.cordR / Math.max(Math.abs(vector.cordR), 1),
-                vector.cordS / Math.max(Math.abs(vector.cordS), 1)
-        );
-    }
-
-
-}
\ No newline at end of file
+}
@@ -1,13 +1,33 @@
 package lms.grid;
 
+import lms.logistics.TopologyListener;
+import lms.logistics.Transport;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * The GameGrid is responsible for managing the state and initialisation of the game's grid. It
- * provides the Map structure to hold the coordinates of each node in the grid. It also maintains
+ * holds the component placed at each coordinate of the grid in a dense array (see
+ * {@link HexStorage}), so lookups are a little arithmetic rather than a hash. It also maintains
  * the size of the grid using a range variable. The range value donates how many nodes each
  * hexagonal grid node extends to.
+ * <p>
+ * Every cell has an index in [0, {@link #size()}), assigned row by row from the top of the grid.
+ * {@link #getCoordinateAt(int)} and {@link #getComponentAt(int)} can be used to walk the grid in
+ * that order without allocating.
+ * <p>
+ * The grid is only exposed through read-only views ({@link #getGrid()},
+ * {@link #forEachCell(BiConsumer)} and {@link #transports()}), which never copy it. Callers that
+ * want a Map they can modify must ask for one with {@link #snapshot()}.
  *
  * @version 1.1
  * <p>
@@ -21,12 +41,24 @@ public class GameGrid {
      */
     private final int range;
     /**
-     * Map grid
+     * storage holding the component of each cell
+     */
+    private final HexStorage grid;
+    /**
+     * read-only view of grid, handed out by getGrid()
+     */
+    private final Map<Coordinate, GridComponent> view;
+    /**
+     * number of times a cell has been replaced or a path of a transport on the grid relinked
+     */
+    private int modificationCount;
+    /**
+     * set on the path of every transport placed on the grid, counting its relinks
      */
-    private final Map<Coordinate, GridComponent> grid;
+    private final TopologyListener relinks = path -> modificationCount++;
 
     /**
-     * Creates a new GameGrid with the given range, stored in a Map.
+     * Creates a new GameGrid with the given range, stored in a dense array.
      *
      * @param range The range of the grid.
      * @throws IllegalArgumentException if range <= 0
@@ -37,37 +69,126 @@ public class GameGrid {
         }
         this.range = range;
         this.grid = generate(range);
+        this.view = new GridView();
     }
 
     /**
-     * Helper method: Generates a grid with the given range, starting from the origin (the centre) and
-     * maintaining a balanced shape for the entire mapping structure. This has been provided to
-     * support you with the hexagonal coordinate logic.
+     * Helper method: Generates a grid with the given range, maintaining a balanced shape around
+     * the origin (the centre). Each cell is filled exactly once, in O(cells) rather than by testing
+     * every (q, r, s) triple in the bounding cube.
      *
      * @param range The range of the map.
-     * @provided
-     */
-    private Map<Coordinate, GridComponent> generate(int range) {
-        Map<Coordinate, GridComponent> tempGrid = new HashMap<>();
-        for (int q = -range; q <= range; q++) { // From negative to positive (inclusive)
-            for (int r = -range; r <= range; r++) { // From negative to positive (inclusive)
-                for (int s = -range; s <= range; s++) { // From negative to positive (inclusive)
-                    if (q + r + s == 0) {
-                        // Useful to default to error
-                        tempGrid.put(new Coordinate(q, r, s), () -> "ERROR");
-                    }
-                }
-            }
-        }
-        return tempGrid;
+     * @return HexStorage The storage holding every cell of the grid.
+     */
+    private HexStorage generate(int range) {
+        // Useful to default to error
+        return new HexStorage(range, () -> "ERROR");
     }
 
     /**
-     * Get a copy of the grid of the game.
-     * @return Map Coordinate, GridComponent A copy of the grid of the game.
+     * Get a read-only view of the grid of the game. The view is live: it reflects later calls to
+     * {@link #setCoordinate(Coordinate, GridComponent)}, and any attempt to modify it throws an
+     * UnsupportedOperationException. Iterating the view visits the cells in index order.
+     *
+     * @return Map Coordinate, GridComponent An unmodifiable view of the grid of the game.
      */
     public Map<Coordinate, GridComponent> getGrid() {
-        return new HashMap<>(grid);
+        return view;
+    }
+
+    /**
+     * Get a copy of the grid of the game, which the caller is free to modify.
+     *
+     * @return Map Coordinate, GridComponent A copy of the grid of the game.
+     */
+    public Map<Coordinate, GridComponent> snapshot() {
+        return new HashMap<>(view);
+    }
+
+    /**
+     * Passes every cell of the grid, in index order, to the given visitor.
+     *
+     * @param visitor The visitor, called with the coordinate and component of each cell.
+     */
+    public void forEachCell(BiConsumer<Coordinate, GridComponent> visitor) {
+        for (int i = 0; i < grid.size(); i++) {
+            visitor.accept(grid.coordinateAt(i), grid.componentAt(i));
+        }
+    }
+
+    /**
+     * Get a stream of every Transport placed on the grid, in index order.
+     *
+     * @return Stream Transport The transports on the grid.
+     */
+    public Stream<Transport> transports() {
+        return IntStream.range(0, grid.size())
+                .mapToObj(grid::componentAt)
+                .filter(Transport.class::isInstance)
+                .map(Transport.class::cast);
+    }
+
+    /**
+     * Get the number of cells in the grid.
+     *
+     * @return int The number of cells in the grid.
+     */
+    public int size() {
+        return grid.size();
+    }
+
+    /**
+     * Get the index of the cell at the given coordinate.
+     *
+     * @param coordinate The coordinate of the cell.
+     * @return int The index of the cell, or -1 if the coordinate is not part of the grid.
+     */
+    public int indexOf(Coordinate coordinate) {
+        return grid.indexOf(coordinate);
+    }
+
+    /**
+     * Get the index of the cell at the given packed position.
+     *
+     * @param key The position of the cell, as made by {@link Coordinate#pack(int, int)}.
+     * @return int The index of the cell, or -1 if the position is not part of the grid.
+     */
+    public int indexOf(long key) {
+        return grid.indexOf(Coordinate.unpackQ(key), Coordinate.unpackR(key));
+    }
+
+    /**
+     * Get the coordinate of the cell at the given index.
+     *
+     * @param index The index of the cell.
+     * @return Coordinate The coordinate of the cell.
+     * @throws IndexOutOfBoundsException if index &lt; 0 || index &gt;= size()
+     */
+    public Coordinate getCoordinateAt(int index) {
+        return grid.coordinateAt(index);
+    }
+
+    /**
+     * Get the GridComponent of the cell at the given index.
+     *
+     * @param index The index of the cell.
+     * @return GridComponent The component held by the cell.
+     * @throws IndexOutOfBoundsException if index &lt; 0 || index &gt;= size()
+     */
+    public GridComponent getComponentAt(int index) {
+        return grid.componentAt(index);
+    }
+
+    /**
+     * Get the GridComponent at the given coordinate.
+     *
+     * @param coordinate The coordinate of the GridComponent.
+     * @return GridComponent The component at the coordinate, or null if the coordinate is not
+     * part of the grid.
+     */
+    public GridComponent getComponent(Coordinate coordinate) {
+        int index = grid.indexOf(coordinate);
+        return index < 0 ? null : grid.componentAt(index);
     }
 
     /**
@@ -84,8 +205,112 @@ public class GameGrid {
      *
      * @param coordinate The coordinate of the GridComponent.
      * @param component  The GridComponent to be set.
+     * @throws IllegalArgumentException if the coordinate is not part of the grid
      */
     public void setCoordinate(Coordinate coordinate, GridComponent component) {
-        grid.put(coordinate, component);
+        int index = grid.indexOf(coordinate);
+        if (index < 0) {
+            throw new IllegalArgumentException("Coordinate is outside the grid");
+        }
+        setComponentAt(index, component);
+    }
+
+    /**
+     * Set the GridComponent of the cell at the given index. A transport placed on the grid reports
+     * the relinks of its path to this grid, and stops reporting them to any grid it was placed on
+     * before.
+     *
+     * @param index     The index of the cell.
+     * @param component The GridComponent to be set.
+     * @throws IndexOutOfBoundsException if index &lt; 0 || index &gt;= size()
+     */
+    public void setComponentAt(int index, GridComponent component) {
+        grid.set(index, component);
+        if (component instanceof Transport transport) {
+            transport.getPath().setTopologyListener(relinks);
+        }
+        modificationCount++;
+    }
+
+    /**
+     * Get the number of times a cell of the grid has been replaced, or the path of a transport on
+     * the grid has been linked to or unlinked from another path. Anything derived from the
+     * contents of the grid or the shape of its paths, such as a tick order, is still valid as
+     * long as this value has not changed since it was derived. Relinking paths on another grid
+     * does not change it.
+     *
+     * @return int The modification count of the grid.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Unmodifiable Map view over the storage of the grid. Lookups go straight to the storage and
+     * iteration walks it in index order, so nothing is copied.
+     */
+    private class GridView extends AbstractMap<Coordinate, GridComponent> {
+
+        /**
+         * entry set of the view, created on first use
+         */
+        private Set<Map.Entry<Coordinate, GridComponent>> entries;
+
+        @Override
+        public int size() {
+            return grid.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Coordinate coordinate && grid.indexOf(coordinate) >= 0;
+        }
+
+        @Override
+        public GridComponent get(Object key) {
+            if (!(key instanceof Coordinate coordinate)) {
+                return null;
+            }
+            int index = grid.indexOf(coordinate);
+            return index < 0 ? null : grid.componentAt(index);
+        }
+
+        @Override
+        public Set<Map.Entry<Coordinate, GridComponent>> entrySet() {
+            if (entries == null) {
+                entries = new AbstractSet<>() {
+                    @Override
+                    public Iterator<Map.Entry<Coordinate, GridComponent>> iterator() {
+                        return new Iterator<>() {
+                            private int index = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return index < grid.size();
+                            }
+
+                            @Override
+                            public Map.Entry<Coordinate, GridComponent> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                Map.Entry<Coordinate, GridComponent> entry =
+                                        new AbstractMap.SimpleImmutableEntry<>(
+                                                grid.coordinateAt(index),
+                                                grid.componentAt(index));
+                                index++;
+                                return entry;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return grid.size();
+                    }
+                };
+            }
+            return entries;
+        }
     }
 }
@@ -0,0 +1,167 @@
+package lms.grid;
+
+/**
+ * Dense storage for every cell of a hexagonal grid of a given range. Instead of hashing
+ * Coordinates, each axial (q, r) position is mapped to an index into a flat array.
+ * <p>
+ * Cells are laid out row by row, from the top row (r = -range) to the bottom row (r = range), and
+ * from left to right (increasing q) within a row. This is the same order in which the rows of a
+ * save file are read, so walking the indices from 0 to {@link #size()} visits the grid in memory
+ * order.
+ * <p>
+ * Row r contains the positions q in [max(-range, -range - r), min(range, range - r)], so the index
+ * of (q, r) is the number of cells in the rows above plus the offset of q within its row.
+ * <p>
+ * The coordinate of every cell is created once and reused, so they act as the canonical instances
+ * for the grid, shared with {@link Coordinate#of(int, int)} near the origin.
+ *
+ * @ass2
+ */
+final class HexStorage {
+
+    /**
+     * range of the stored grid
+     */
+    private final int range;
+
+    /**
+     * index of the first cell of each row, indexed by r + range
+     */
+    private final int[] rowStart;
+
+    /**
+     * coordinate of each cell, indexed by cell index
+     */
+    private final Coordinate[] coordinates;
+
+    /**
+     * component of each cell, indexed by cell index
+     */
+    private final GridComponent[] components;
+
+    /**
+     * Creates storage for a grid of the given range, with every cell set to the given component.
+     *
+     * @param range        The range of the grid.
+     * @param defaultValue The component every cell initially holds.
+     * @throws IllegalArgumentException if range &lt; 0
+     */
+    HexStorage(int range, GridComponent defaultValue) {
+        if (range < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.range = range;
+        this.rowStart = new int[2 * range + 1];
+        int size = 3 * range * (range + 1) + 1;
+        this.coordinates = new Coordinate[size];
+        this.components = new GridComponent[size];
+
+        int index = 0;
+        for (int r = -range; r <= range; r++) {
+            rowStart[r + range] = index;
+            for (int q = minQ(r); q <= maxQ(r); q++) {
+                coordinates[index] = Coordinate.of(q, r);
+                components[index] = defaultValue;
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cells stored.
+     *
+     * @return the number of cells in the grid.
+     */
+    int size() {
+        return components.length;
+    }
+
+    /**
+     * Returns the range of the stored grid.
+     *
+     * @return the range of the grid.
+     */
+    int getRange() {
+        return range;
+    }
+
+    /**
+     * Returns the index of the cell at the given axial position.
+     *
+     * @param q the q component of the position.
+     * @param r the r component of the position.
+     * @return the index of the cell, or -1 if the position is outside the grid.
+     */
+    int indexOf(int q, int r) {
+        if (r < -range || r > range || q < minQ(r) || q > maxQ(r)) {
+            return -1;
+        }
+        return rowStart[r + range] + q - minQ(r);
+    }
+
+    /**
+     * Returns the index of the cell at the given coordinate.
+     *
+     * @param coordinate the coordinate to look up.
+     * @return the index of the cell, or -1 if the coordinate is null or outside the grid.
+     */
+    int indexOf(Coordinate coordinate) {
+        if (coordinate == null || coordinate.getQ() + coordinate.getR() + coordinate.getS() != 0) {
+            return -1;
+        }
+        return indexOf(coordinate.getQ(), coordinate.getR());
+    }
+
+    /**
+     * Returns the coordinate of the cell at the given index.
+     *
+     * @param index the index of the cell.
+     * @return the coordinate of the cell.
+     * @throws ArrayIndexOutOfBoundsException if index is not in [0, size())
+     */
+    Coordinate coordinateAt(int index) {
+        return coordinates[index];
+    }
+
+    /**
+     * Returns the component of the cell at the given index.
+     *
+     * @param index the index of the cell.
+     * @return the component held by the cell.
+     * @throws ArrayIndexOutOfBoundsException if index is not in [0, size())
+     */
+    GridComponent componentAt(int index) {
+        return components[index];
+    }
+
+    /**
+     * Replaces the component of the cell at the given index.
+     *
+     * @param index     the index of the cell.
+     * @param component the component to store.
+     * @throws ArrayIndexOutOfBoundsException if index is not in [0, size())
+     */
+    void set(int index, GridComponent component) {
+        components[index] = component;
+    }
+
+    /**
+     * Returns the smallest q present in the given row.
+     *
+     * @param r the row.
+     * @return the smallest q in row r.
+     */
+    private int minQ(int r) {
+        return Math.max(-range, -range - r);
+    }
+
+    /**
+     * Returns the largest q present in the given row.
+     *
+     * @param r the row.
+     * @return the largest q in row r.
+     */
+    private int maxQ(int r) {
+        return Math.min(range, range - r);
+    }
+}
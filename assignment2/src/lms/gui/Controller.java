@@ -1,16 +1,11 @@
 package lms.gui;
 
 import lms.exceptions.BadStateException;
-import lms.logistics.Path;
-import lms.logistics.Transport;
-import lms.grid.GameGrid;
-import lms.grid.GridComponent;
+import lms.logistics.TickScheduler;
+import lms.utility.LogLevel;
+import lms.utility.Logger;
 
 import javax.swing.*;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * Controller class for the GUI.
@@ -22,82 +17,72 @@ import java.util.Map;
  */
 public class Controller {
 
+    /**
+     * Logger for tick diagnostics.
+     */
+    private static final Logger LOG = Logger.getLogger(Controller.class);
+
+    /**
+     * Most nodes of a chain written to the log each tick.
+     */
+    private static final int LOGGED_NODES = 32;
+
     /**
      * View for the canvas application.
      */
     private final ViewModel viewModel;
 
+    /**
+     * Tick order of the transports on the view's map, or null to compile one when run.
+     */
+    private final TickScheduler scheduler;
+
     /**
      * Create a new Controller for the given view, adding ActionListener to the view.
      *
      * @param viewModel The view to be managed by this controller.
      */
     public Controller(ViewModel viewModel) {
+        this(viewModel, null);
+    }
+
+    /**
+     * Create a new Controller for the given view that ticks its map with an already compiled
+     * scheduler, such as the one returned by {@link lms.io.GameLoader#loadGame}.
+     *
+     * @param viewModel The view to be managed by this controller.
+     * @param scheduler The tick order of the transports on the view's map.
+     */
+    public Controller(ViewModel viewModel, TickScheduler scheduler) {
         this.viewModel = viewModel;
+        this.scheduler = scheduler;
     }
 
     /**
      * JavaDoc not provided since this is a given piece of code
      */
     public void run() {
+        TickScheduler scheduler = this.scheduler != null
+                ? this.scheduler : new TickScheduler(viewModel.getMap());
         Timer timer = new Timer(1000, e -> {
             if (viewModel.isPaused()) {
                 return;
             }
 
-            GameGrid map = viewModel.getMap();
-            List<Path> paths = new ArrayList<>();
-            Map<Transport, Path> pathLog = new HashMap<>();
-
-            for (GridComponent component : map.getGrid().values()) {
-
-                if (!(component instanceof Transport transport)) {
-                    continue;
-                }
-                if (pathLog.containsKey(transport)) {
-                    continue;
-                }
-
-                List<Path> search = new ArrayList<>();
-                List<Path> x = List.of(transport.getPath(), transport.getPath());
-                search.add(x.get(0));
-
-                for (Path path : search) {
-                    if (!path.tail().equals(path)) {
-                        continue;
-                    }
-                    Transport t = path.getNode();
-                    while (true) {
-                        pathLog.put(t, path);
-                        if (path.getPrevious() == null) {
-                            break;
-                        }
-                        Transport previousNode = path.getPrevious().getNode();
-                        List<Path> x1 = List.of(
-                                new Path(previousNode.getPath()),
-                                new Path(previousNode.getPath())
-                        );
-
-                        t = previousNode;
-                        x = x1;
-                        // x.get(0).next(x.get(1).next()) ;//= path;
-
-                        x.get(0).setNext(path);
-                        x.get(1).setNext(path);
-
-                        path = x.get(0);
-                    }
-                    paths.add(path.tail());
-                }
+            scheduler.compileIfStale();
+            boolean debug = LOG.isEnabled(LogLevel.DEBUG);
+            if (debug) {
+                LOG.debug(() -> scheduler.getChainCount() + " chains");
             }
-
-            System.out.println(paths.size());
-            for (Path p : paths) {
-                System.out.println(p);
+            for (int chain = 0; chain < scheduler.getChainCount(); chain++) {
+                if (debug) {
+                    String description = scheduler.getChainHead(chain).describe(LOGGED_NODES);
+                    LOG.debug(() -> description);
+                }
                 try {
-                    p.applyAll(Transport::tick);
+                    scheduler.tickChain(chain);
                 } catch (BadStateException bse) {
-                    System.err.println("Tick could not be processed:" + bse);
+                    LOG.warn(() -> "Tick could not be processed:" + bse);
                 }
             }
             viewModel.getCanvas().repaint();
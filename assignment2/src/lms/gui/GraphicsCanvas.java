@@ -9,11 +9,14 @@ import lms.grid.Coordinate;
 import lms.grid.GameGrid;
 import lms.grid.GridComponent;
 import lms.grid.Orientation;
+import lms.utility.LogLevel;
+import lms.utility.Logger;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
 
@@ -31,16 +34,73 @@ import java.util.List;
  */
 class GraphicsCanvas extends JPanel {
 
+    /**
+     * Logger for drawing diagnostics
+     */
+    private static final Logger LOG = Logger.getLogger(GraphicsCanvas.class);
+
+    /**
+     * Stroke of the lines joining a transport to its input and output
+     */
+    private static final Stroke CONNECTION_STROKE = new BasicStroke(3);
+
+    /**
+     * Every orientation, shared so that looking through the neighbours of a cell does not copy
+     * the array returned by Orientation.values()
+     */
+    private static final Orientation[] DIRECTIONS = Orientation.values();
+
     /**
      * Stores the hexagons in a List of DrawnElements
      */
     private final List<DrawnElement> hexagons;
 
+    /**
+     * The drawn elements holding a transport, in index order
+     */
+    private final List<DrawnElement> transportElements;
+
+    /**
+     * Everything drawn that does not change as the map ticks: outlines, cell fills, connection
+     * lines and transport boxes. Null if it must be rendered again.
+     */
+    private BufferedImage staticLayer;
+
     /**
      * Stores the hover polygon
      */
     private Polygon hoverPolygon;
 
+    /**
+     * The map last drawn, or null if none has been
+     */
+    private GameGrid map;
+
+    /**
+     * The drawn elements indexed by the grid index of their cell
+     */
+    private DrawnElement[] elements = new DrawnElement[0];
+
+    /**
+     * Pixel position of the centre of the origin hexagon of the map last drawn
+     */
+    private int centreX;
+
+    /**
+     * Pixel position of the centre of the origin hexagon of the map last drawn
+     */
+    private int centreY;
+
+    /**
+     * The drawn elements holding a transport, looked up by transport id
+     */
+    private TransportIndex transportIndex = new TransportIndex(0);
+
+    /**
+     * Modification count of the map the connections were computed at
+     */
+    private int connectionsGrid = -1;
+
 
     /**
      * Hidden Class
@@ -77,6 +137,12 @@ class GraphicsCanvas extends JPanel {
         private GridComponent component;
         //  method [getComponent]
 
+        /**
+         * End points (x then y) of the lines from the centre to the sides leading to the input
+         * and output of a transport, or null if not yet computed
+         */
+        private int[] connections;
+
         public DrawnElement(Coordinate coordinate, Polygon polygon, int x, int y,
                             GridComponent component) {
             this.coordinate = coordinate;
@@ -87,6 +153,80 @@ class GraphicsCanvas extends JPanel {
         }
     }
 
+    /**
+     * Maps transport ids to the elements drawn for them, with open addressing over primitive
+     * arrays so that a lookup neither boxes the id nor walks the drawn elements.
+     */
+    private static class TransportIndex {
+
+        /**
+         * Transport id held in each slot
+         */
+        private final int[] ids;
+
+        /**
+         * Element held in each slot, or null if the slot is free
+         */
+        private final DrawnElement[] values;
+
+        /**
+         * Creates an index with room for the given number of transports.
+         *
+         * @param capacity the most transports that will be added
+         */
+        TransportIndex(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(1, capacity) * 2 - 1) * 2;
+            ids = new int[slots];
+            values = new DrawnElement[slots];
+        }
+
+        /**
+         * Returns the first slot to try for the given id.
+         *
+         * @param id the transport id
+         * @return the slot index
+         */
+        private int slot(int id) {
+            int hash = id * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & (ids.length - 1);
+        }
+
+        /**
+         * Adds an element for the given id, unless one has already been added.
+         *
+         * @param id      the transport id
+         * @param element the element drawn for the transport
+         */
+        void put(int id, DrawnElement element) {
+            int slot = slot(id);
+            while (values[slot] != null) {
+                if (ids[slot] == id) {
+                    return;
+                }
+                slot = (slot + 1) & (ids.length - 1);
+            }
+            ids[slot] = id;
+            values[slot] = element;
+        }
+
+        /**
+         * Returns the element drawn for the given id.
+         *
+         * @param id the transport id
+         * @return the element, or null if none was added for id
+         */
+        DrawnElement get(int id) {
+            int slot = slot(id);
+            while (values[slot] != null) {
+                if (ids[slot] == id) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & (ids.length - 1);
+            }
+            return null;
+        }
+    }
+
     /**
      * Creates a new GraphicsCanvas with the specified preferred width and height.
      *
@@ -97,41 +237,29 @@ class GraphicsCanvas extends JPanel {
         super();
         this.setPreferredSize(new Dimension(prefWidth, prefHeight));
         hexagons = new ArrayList<>();
+        transportElements = new ArrayList<>();
         hoverPolygon = null;
         addMouseMotionListener(new MouseAdapter() {
 
             /**
-             * This is a method implementation for the mouseMoved method,
-             * which is part of a MouseAdapter object being used in a
-             * GraphicsCanvas class. The mouseMoved method is called when
-             * the user moves the mouse within the canvas.
-             * <p>
-             * The purpose of this method is to determine whether the mouse
-             * is currently hovering over any of the hexagons that have been
-             * added to the GraphicsCanvas. Here's how it works:
-             * <p>
-             * hexagons.stream() - creates a stream of Hexagon objects that
-             * have been added to the GraphicsCanvas.
-             * .map(el -> el.polygon) - maps each Hexagon object to its corresponding
-             * Polygon object. .filter(p -> p.contains(e.getPoint())) - filters the
-             * stream to include only Polygon objects that contain the current mouse
-             * point (e.getPoint()). .findFirst() returns an Optional containing the
-             * first Polygon that was filtered, if one exists.
-             * .ifPresentOrElse(p -> hoverPolygon = p, () -> hoverPolygon = null) -
-             * sets the hoverPolygon variable to the first Polygon if it exists, or
-             * null if it doesn't. The code is checking whether the mouse is currently
-             * hovering over any of the hexagons on the canvas, and if so, it sets the
-             * hoverPolygon variable to the corresponding Polygon. Finally, it calls
-             * repaint() to update the canvas and display the hover state of the hexagon.
+             * Called when the user moves the mouse within the canvas. Finds the hexagon under
+             * the mouse with {@link #getElementAt(Point)} and, if it is not the one already
+             * highlighted, repaints only the old and new hexagons.
              */
             @Override
             public void mouseMoved(MouseEvent e) {
-                hexagons.stream()
-                        .map(el -> el.polygon)
-                        .filter(p -> p.contains(e.getPoint()))
-                        .findFirst()
-                        .ifPresentOrElse(p -> hoverPolygon = p, () -> hoverPolygon = null);
-                repaint();
+                DrawnElement element = getElementAt(e.getPoint());
+                Polygon polygon = element == null ? null : element.polygon;
+                if (polygon == hoverPolygon) {
+                    return;
+                }
+                if (hoverPolygon != null) {
+                    repaintAround(hoverPolygon);
+                }
+                hoverPolygon = polygon;
+                if (polygon != null) {
+                    repaintAround(polygon);
+                }
             }
         });
     }
@@ -140,8 +268,12 @@ class GraphicsCanvas extends JPanel {
      * Draws a game map by generating a hexagonal grid based on the MapComponents of the provided
      * GameGrid. The generated grid is centered on the JPanel that this method is called from, unless
      * its dimensions are (0,0), in which case the grid is centered on the preferred size of the
-     * JPanel. The hexagonal grid is generated using a slow algorithm that iterates over all the
-     * MapComponents and their connections, drawing the hexagons on a canvas as it goes.
+     * JPanel. Any map drawn before is replaced.
+     * <p>
+     * The centre of each hexagon is projected straight from its axial coordinate: a step in q moves
+     * a whole hexagon to the right, and a step in r moves half a hexagon to the right and three
+     * quarters of one down. Every cell is visited once, in index order, so drawing a map takes time
+     * proportional to its number of cells.
      *
      * @param map the GameGrid to draw
      */
@@ -154,132 +286,177 @@ class GraphicsCanvas extends JPanel {
             x = dimensions.width / 2;
             y = dimensions.height / 2;
         }
-
-        Map<Coordinate, GridComponent> grid = map.getGrid();
         setLayout(null);
 
-        List<Coordinate> tasklist = new ArrayList<>();
-
-        Coordinate origin = new Coordinate();
-
-        hexagons.add(new DrawnElement(origin, drawHexagon(x, y), x, y, grid.get(origin)));
-        tasklist.add(origin);
-
         int size = getHexagonSize();
         int half = size / 2;
         int threeQuart = size * 3 / 4;
 
-        // Incredibly slow algorithm
-        // Improve if you want
-        // Hard because generic Coordinate system and working off connections
-        while (!tasklist.isEmpty()) {
-            Coordinate target = tasklist.remove(0);
-            grid.remove(target);
-            // if item != null do something (drawing)
-
-            DrawnElement element =
-                    hexagons.stream()
-                            .filter(e -> e.coordinate.equals(target))
-                            .findFirst().orElseThrow(IllegalArgumentException::new);
-            for (Coordinate c : grid.keySet()) {
-                if (tasklist.contains(c)) {
-                    continue;
-                }
-                if (target.isNeighbour(c)) {
-                    Orientation direction = target.getDirection(c);
-                    x = element.cordX;
-                    y = element.cordY;
-                    switch (direction) {
-                        case TOP_LEFT -> {
-                            x -= half;
-                            y -= threeQuart;
-                        }
-                        case TOP_RIGHT -> {
-                            x += half;
-                            y -= threeQuart;
-                        }
-                        case RIGHT -> {
-                            x += size;
-                        }
-                        case BOTTOM_RIGHT -> {
-                            x += half;
-                            y += threeQuart;
-                        }
-                        case BOTTOM_LEFT -> {
-                            x -= half;
-                            y += threeQuart;
-                        }
-                        case LEFT -> {
-                            x -= size;
-                        }
-                    }
-                    hexagons.add(new DrawnElement(c, drawHexagon(x, y), x, y,
-                            grid.getOrDefault(c, () -> "ERROR")));
-                    System.out.println("Drew " + c + " as " + grid.getOrDefault(c, () -> "ERROR")
-                            .getEncoding() + " : from - " + target + " - as " + direction);
-                    tasklist.add(c);
-                }
+        boolean trace = LOG.isEnabled(LogLevel.TRACE);
+
+        hexagons.clear();
+        transportElements.clear();
+        staticLayer = null;
+        elements = new DrawnElement[map.size()];
+        transportIndex = new TransportIndex(map.size());
+        connectionsGrid = -1;
+        this.map = map;
+        centreX = x;
+        centreY = y;
+        hoverPolygon = null;
+        for (int i = 0; i < map.size(); i++) {
+            Coordinate coordinate = map.getCoordinateAt(i);
+            GridComponent component = map.getComponentAt(i);
+            int cellX = x + coordinate.getQ() * size + coordinate.getR() * half;
+            int cellY = y + coordinate.getR() * threeQuart;
+            DrawnElement element = new DrawnElement(coordinate, drawHexagon(cellX, cellY),
+                    cellX, cellY, component);
+            hexagons.add(element);
+            elements[i] = element;
+            if (component instanceof Transport transport) {
+                transportElements.add(element);
+                transportIndex.put(transport.getId(), element);
+            }
+            if (trace) {
+                LOG.trace(() -> "Drew " + coordinate + " as " + component.getEncoding()
+                        + " at (" + cellX + ", " + cellY + ")");
             }
         }
     }
 
+    /**
+     * Returns the element drawn for the given position.
+     *
+     * @param key the position of the cell, as made by {@link Coordinate#pack(int, int)}
+     * @return the element drawn for the cell, or null if it is not on the drawn map
+     */
+    private DrawnElement getElementAt(long key) {
+        int index = map == null ? -1 : map.indexOf(key);
+        return index < 0 ? null : elements[index];
+    }
 
     /**
-     * Draws a line between the specified coordinates and the middle of one of the sides of the
-     * specified polygon, based on the specified orientation. If the orientation is not one of the
-     * predefined values, the line is drawn directly from the specified coordinates to the center of
-     * the polygon.
+     * Returns the element whose hexagon contains the given point, in constant time.
+     * <p>
+     * The projection used by {@link #drawMap(GameGrid)} is inverted to find the fractional axial
+     * coordinate of the point, which is rounded to the nearest hexagon in cube coordinates (the
+     * component furthest from a whole number is recomputed from the other two, so that
+     * q + r + s = 0 still holds). Since the corners of the hexagons are rounded to whole pixels, a
+     * point on an edge may belong to a neighbour instead, so the neighbours are tried as well,
+     * stepping between packed positions so that no Coordinate is allocated.
      *
-     * @param graphics2D  the graphics context to use for drawing the line
-     * @param polygon     the polygon to use for determining the middle point of the line
-     * @param x           the x-coordinate of the starting point of the line
-     * @param y           the y-coordinate of the starting point of the line
-     * @param orientation the orientation of the line relative to the polygon
-     * @throws NullPointerException if the graphics2D or polygon parameter is null
+     * @param point the point, in canvas coordinates
+     * @return the element containing the point, or null if there is none
      */
-    private void drawLine(Graphics2D graphics2D, Polygon polygon, int x, int y,
-                          Orientation orientation) {
-
-        /* Determine the midpoint of the appropriate side of the polygon
-           based on the specified orientation */
-        int midX;
-        int midY;
-        switch (orientation) {
-            case TOP_LEFT -> {
-                midX = (polygon.xpoints[4] + polygon.xpoints[5]) / 2;
-                midY = (polygon.ypoints[4] + polygon.ypoints[5]) / 2;
-            }
-            case TOP_RIGHT -> {
-                midX = (polygon.xpoints[5] + polygon.xpoints[0]) / 2;
-                midY = (polygon.ypoints[5] + polygon.ypoints[0]) / 2;
-            }
-            case RIGHT -> {
-                midX = (polygon.xpoints[0] + polygon.xpoints[1]) / 2;
-                midY = (polygon.ypoints[0] + polygon.ypoints[1]) / 2;
-            }
-            case BOTTOM_RIGHT -> {
-                midX = (polygon.xpoints[1] + polygon.xpoints[2]) / 2;
-                midY = (polygon.ypoints[1] + polygon.ypoints[2]) / 2;
-            }
-            case BOTTOM_LEFT -> {
-                midX = (polygon.xpoints[2] + polygon.xpoints[3]) / 2;
-                midY = (polygon.ypoints[2] + polygon.ypoints[3]) / 2;
-            }
-            case LEFT -> {
-                midX = (polygon.xpoints[3] + polygon.xpoints[4]) / 2;
-                midY = (polygon.ypoints[3] + polygon.ypoints[4]) / 2;
-            }
-            default -> {
-                midX = x;
-                midY = y;
+    private DrawnElement getElementAt(Point point) {
+        if (map == null) {
+            return null;
+        }
+        int size = getHexagonSize();
+        double r = (point.y - centreY) / (double) (size * 3 / 4);
+        double q = (point.x - centreX - r * (size / 2)) / size;
+        double s = -q - r;
+        long roundQ = Math.round(q);
+        long roundR = Math.round(r);
+        long roundS = Math.round(s);
+        double errorQ = Math.abs(roundQ - q);
+        double errorR = Math.abs(roundR - r);
+        double errorS = Math.abs(roundS - s);
+        if (errorQ > errorR && errorQ > errorS) {
+            roundQ = -roundR - roundS;
+        } else if (errorR > errorS) {
+            roundR = -roundQ - roundS;
+        }
+        if (Math.abs(roundQ) > map.getRange() + 1 || Math.abs(roundR) > map.getRange() + 1) {
+            return null;
+        }
+
+        long nearest = Coordinate.pack((int) roundQ, (int) roundR);
+        DrawnElement element = getElementAt(nearest);
+        if (element != null && element.polygon.contains(point)) {
+            return element;
+        }
+        for (Orientation direction : DIRECTIONS) {
+            element = getElementAt(Coordinate.neighbour(nearest, direction));
+            if (element != null && element.polygon.contains(point)) {
+                return element;
             }
         }
+        return null;
+    }
 
-        /* Draw the line between the specified starting point and the midpoint of the side */
-        Stroke s = graphics2D.getStroke();
-        graphics2D.setStroke(new BasicStroke(3));
-        graphics2D.drawLine(x, y, midX, midY);
-        graphics2D.setStroke(s);
+    /**
+     * Repaints the area covered by the given hexagon, including its outline.
+     *
+     * @param polygon the hexagon to repaint
+     */
+    private void repaintAround(Polygon polygon) {
+        Rectangle bounds = polygon.getBounds();
+        repaint(bounds.x - 1, bounds.y - 1, bounds.width + 2, bounds.height + 2);
+    }
+
+    /**
+     * Returns the middle of one of the sides of the specified polygon, based on the specified
+     * orientation. If the orientation is not one of the predefined values, the given point is
+     * returned instead.
+     *
+     * @param polygon     the polygon to use for determining the middle point
+     * @param x           the x-coordinate of the point to use otherwise
+     * @param y           the y-coordinate of the point to use otherwise
+     * @param orientation the side of the polygon
+     * @return the middle of the side, as {x, y}
+     * @throws NullPointerException if the polygon or orientation parameter is null
+     */
+    private static int[] sideMidpoint(Polygon polygon, int x, int y, Orientation orientation) {
+        return switch (orientation) {
+            case TOP_LEFT -> new int[]{(polygon.xpoints[4] + polygon.xpoints[5]) / 2,
+                (polygon.ypoints[4] + polygon.ypoints[5]) / 2};
+            case TOP_RIGHT -> new int[]{(polygon.xpoints[5] + polygon.xpoints[0]) / 2,
+                (polygon.ypoints[5] + polygon.ypoints[0]) / 2};
+            case RIGHT -> new int[]{(polygon.xpoints[0] + polygon.xpoints[1]) / 2,
+                (polygon.ypoints[0] + polygon.ypoints[1]) / 2};
+            case BOTTOM_RIGHT -> new int[]{(polygon.xpoints[1] + polygon.xpoints[2]) / 2,
+                (polygon.ypoints[1] + polygon.ypoints[2]) / 2};
+            case BOTTOM_LEFT -> new int[]{(polygon.xpoints[2] + polygon.xpoints[3]) / 2,
+                (polygon.ypoints[2] + polygon.ypoints[3]) / 2};
+            case LEFT -> new int[]{(polygon.xpoints[3] + polygon.xpoints[4]) / 2,
+                (polygon.ypoints[3] + polygon.ypoints[4]) / 2};
+            default -> new int[]{x, y};
+        };
+    }
+
+    /**
+     * Computes the connection lines of every drawn transport again if the map, or a path of one of
+     * its transports, has changed since they were last computed. Between such changes a repaint
+     * reuses them.
+     * Only the drawn transports are visited, so this takes time proportional to their number
+     * rather than to the area of the map.
+     *
+     * @return true if the connection lines were computed again
+     */
+    private boolean updateConnections() {
+        if (map == null || map.getModificationCount() == connectionsGrid) {
+            return false;
+        }
+        for (DrawnElement element : transportElements) {
+            Transport transport = (Transport) element.component;
+            int[] connections = new int[4];
+            int count = 0;
+            for (Path node : new Path[]{transport.getInput(), transport.getOutput()}) {
+                if (node == null) {
+                    continue;
+                }
+                Coordinate other = getElementByTransportId(node.getNode().getId()).coordinate;
+                Orientation direction = element.coordinate.getDirection(other);
+                int[] end = sideMidpoint(element.polygon, element.cordX, element.cordY,
+                        direction);
+                connections[count++] = end[0];
+                connections[count++] = end[1];
+            }
+            element.connections = Arrays.copyOf(connections, count);
+        }
+        connectionsGrid = map.getModificationCount();
+        return true;
     }
 
     /**
@@ -290,11 +467,11 @@ class GraphicsCanvas extends JPanel {
      * @throws RuntimeException if no DrawnElement is found with the specified Transport ID
      */
     private DrawnElement getElementByTransportId(int id) {
-        return hexagons.stream()
-                .filter(el -> el.component instanceof Transport)
-                .filter(el -> ((Transport) el.component).getId() == id)
-                .findAny()
-                .orElseThrow(RuntimeException::new);
+        DrawnElement element = transportIndex.get(id);
+        if (element == null) {
+            throw new RuntimeException();
+        }
+        return element;
     }
 
     /**
@@ -304,24 +481,31 @@ class GraphicsCanvas extends JPanel {
      * @param element The element to draw.
      */
     public void drawShape(Graphics2D graphics2D, DrawnElement element) {
+        drawStaticShape(graphics2D, element);
+        drawItem(graphics2D, element);
+    }
+
+    /**
+     * Draws the parts of the element contents that do not change as the map ticks: the lines and
+     * box of a transport, or the fill of any other cell.
+     *
+     * @param graphics2D the graphics to draw with
+     * @param element    the element to draw
+     */
+    private void drawStaticShape(Graphics2D graphics2D, DrawnElement element) {
         GridComponent component = element.component;
-        if (component instanceof Transport transport) {
+        if (component instanceof Transport) {
             int x = element.cordX;
             int y = element.cordY;
-            // Draw line
-            Coordinate coordinate = element.coordinate;
-            List<Path> nodes = new ArrayList<>();
-            nodes.add(transport.getInput());
-            nodes.add(transport.getOutput());
-
-            for (Path node : nodes) {
-                if (node == null) {
-                    continue;
+            // Draw lines, from the cached end points
+            int[] connections = element.connections;
+            if (connections != null && connections.length > 0) {
+                Stroke stroke = graphics2D.getStroke();
+                graphics2D.setStroke(CONNECTION_STROKE);
+                for (int i = 0; i < connections.length; i += 2) {
+                    graphics2D.drawLine(x, y, connections[i], connections[i + 1]);
                 }
-                Transport item = node.getNode();
-                Coordinate other = getElementByTransportId(item.getId()).coordinate;
-                Orientation direction = coordinate.getDirection(other);
-                drawLine(graphics2D, element.polygon, x, y, direction);
+                graphics2D.setStroke(stroke);
             }
             // Draw box
             if (component instanceof Receiver) {
@@ -333,12 +517,6 @@ class GraphicsCanvas extends JPanel {
             }
             graphics2D.fillRect(x - 5, y - 5, 11, 11);
             graphics2D.setPaint(Color.BLACK);
-            // Draw item
-            Item item = transport.getInventory();
-            if (item != null) {
-                graphics2D.setPaint(Color.RED);
-                graphics2D.fillRect(x - 2, y - 2, 5, 5);
-            }
         } else {
             Polygon hexagon = element.polygon;
             switch (component.getEncoding()) {
@@ -353,7 +531,7 @@ class GraphicsCanvas extends JPanel {
                 case "o" -> {
                 }
                 default -> {
-                    System.out.println(component.getEncoding());
+                    LOG.debug(() -> "Unknown encoding " + component.getEncoding());
                     graphics2D.setPaint(Color.ORANGE);
                     graphics2D.fillPolygon(hexagon);
                 }
@@ -361,24 +539,70 @@ class GraphicsCanvas extends JPanel {
         }
     }
 
+    /**
+     * Draws the item held by the element, if it is a transport holding one.
+     *
+     * @param graphics2D the graphics to draw with
+     * @param element    the element to draw
+     */
+    private void drawItem(Graphics2D graphics2D, DrawnElement element) {
+        if (element.component instanceof Transport transport) {
+            Item item = transport.getInventory();
+            if (item != null) {
+                graphics2D.setPaint(Color.RED);
+                graphics2D.fillRect(element.cordX - 2, element.cordY - 2, 5, 5);
+            }
+        }
+    }
+
+    /**
+     * Renders the static layer again if there is none, if the canvas has been resized, or if the
+     * map or a path of one of its transports has changed since it was rendered.
+     */
+    private void updateStaticLayer() {
+        boolean changed = updateConnections();
+        if (!changed && staticLayer != null && staticLayer.getWidth() == getWidth()
+                && staticLayer.getHeight() == getHeight()) {
+            return;
+        }
+        staticLayer = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics2D = staticLayer.createGraphics();
+        for (DrawnElement shape : hexagons) {
+            graphics2D.setPaint(Color.BLACK);
+            graphics2D.drawPolygon(shape.polygon);
+            drawStaticShape(graphics2D, shape);
+        }
+        graphics2D.dispose();
+    }
+
     /**
      * This is the main graphical canvas for drawing your objects, such as hexagons and such.
+     * <p>
+     * Only the items held by transports and the hover highlight are drawn on every repaint, over
+     * a cached image of everything else (see {@link #updateStaticLayer()}). Items outside the area
+     * being repainted are skipped.
      *
      * @param g the <code>Graphics</code> object to protect
      */
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        updateStaticLayer();
         Graphics2D graphics2D = (Graphics2D) g.create();
+        graphics2D.drawImage(staticLayer, 0, 0, null);
 
-        for (DrawnElement shape : hexagons) {
-            graphics2D.setPaint(Color.BLACK);
-            graphics2D.drawPolygon(shape.polygon);
-            drawShape(graphics2D, shape);
-
+        Rectangle clip = graphics2D.getClipBounds();
+        for (DrawnElement shape : transportElements) {
+            if (clip == null || clip.intersects(shape.cordX - 2, shape.cordY - 2, 5, 5)) {
+                drawItem(graphics2D, shape);
+            }
         }
 
         if (hoverPolygon != null) {
+            graphics2D.setPaint(Color.BLACK);
             graphics2D.setComposite(AlphaComposite.SrcOver.derive(0.5f));
             graphics2D.fillPolygon(hoverPolygon);
         }
@@ -2,7 +2,10 @@ package lms.gui;
 
 import lms.exceptions.FileFormatException;
 import lms.io.GameLoader;
+import lms.io.LoadedGame;
+import lms.logistics.TickScheduler;
 import lms.grid.GameGrid;
+import lms.utility.Logger;
 
 import javax.swing.JFrame;
 import java.io.FileReader;
@@ -19,6 +22,11 @@ import java.io.IOException;
  */
 public class MainApplication {
 
+    /**
+     * Logger for start-up errors
+     */
+    private static final Logger LOG = Logger.getLogger(MainApplication.class);
+
     /**
      * maintains the screen Width
      */
@@ -42,8 +50,9 @@ public class MainApplication {
         this.SCREEN_WIDTH = width;
         this.SCREEN_HEIGHT = height;
 
-        /* Defines the gameGrid */
+        /* Defines the gameGrid and the order its transports tick in */
         GameGrid gameGrid;
+        TickScheduler scheduler;
 
         /*
          * Try and load the save file into gameGrid object
@@ -51,7 +60,9 @@ public class MainApplication {
         try {
 
             /* Loads and initialises the gameGrid object from save file data */
-            gameGrid = GameLoader.load(new FileReader(save));
+            LoadedGame game = GameLoader.loadGame(new FileReader(save));
+            gameGrid = game.getGrid();
+            scheduler = game.getScheduler();
         } catch (IOException e) {
             throw new FileFormatException(e);
         }
@@ -66,7 +77,7 @@ public class MainApplication {
          * Created the view and controller for this application
          */
         ViewModel viewModel = new ViewModel(mainFrame, gameGrid);
-        final Controller controller = new Controller(viewModel); // Thread
+        final Controller controller = new Controller(viewModel, scheduler); // Thread
 
         /* add frame prepared by the view to the mainFrame JFrame */
         mainFrame.add(viewModel.getPanel());
@@ -92,26 +103,26 @@ public class MainApplication {
         //args = new String[]{"saves/grid1.txt"};
 
         if (args.length != 1) {
-            System.err.println("Usage: save_file\n");
-            System.err.println("You did not specify the names of the required save file"
+            LOG.error(() -> "Usage: save_file\n");
+            LOG.error(() -> "You did not specify the names of the required save file"
                     + " from which to load.");
-            System.err.println("To do this, you need to add the command line "
+            LOG.error(() -> "To do this, you need to add the command line "
                     + "argument to your "
                     + "program in IntelliJ.");
-            System.err.println("Go to \"Run > Edit Configurations\" \n"
+            LOG.error(() -> "Go to \"Run > Edit Configurations\" \n"
                     + "(If there is no configuration, "
                     + "you will need to create a new Application configuration, "
                     + "setting MainApplication as the Main class.)\n"
                     + "Add the path to your file to the program arguments text box.\n");
-            System.err.println("Example: saves/grid1.txt");
+            LOG.error(() -> "Example: saves/grid1.txt");
+            Logger.flush();
             System.exit(1);
         }
         try {
             new MainApplication("Logistics Puzzle", 800, 700, args[0]);
             // Width and height chosen with sufficient size to fit all example saves
         } catch (FileFormatException e) {
-            System.err.println("File was incorrectly formatted");
-            e.printStackTrace();
+            LOG.error(() -> "File was incorrectly formatted", e);
         }
     }
 
@@ -2,6 +2,7 @@ package lms.gui;
 
 import lms.grid.Coordinate;
 import lms.grid.GameGrid;
+import lms.utility.Logger;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -18,6 +19,11 @@ import java.awt.event.KeyEvent;
  */
 public class ViewModel {
 
+    /**
+     * Logger for view events
+     */
+    private static final Logger LOG = Logger.getLogger(ViewModel.class);
+
     /**
      * isPaused is used to pause the game loop.
      */
@@ -113,7 +119,7 @@ public class ViewModel {
         /* Add a listener to the menu item */
         togglePause.addActionListener(e -> {
             isPaused = !isPaused;
-            System.out.println(isPaused);
+            LOG.info(() -> isPaused ? "Paused" : "Resumed");
         });
 
         /* Add the togglePause action to the menu bar */
@@ -163,7 +169,7 @@ public class ViewModel {
         if (map.getGrid().containsKey(origin)) {
             canvas.drawMap(map);
         } else {
-            System.out.println("Coordinate map did not have an Origin Coordinate, nothing was "
+            LOG.warn(() -> "Coordinate map did not have an Origin Coordinate, nothing was "
                     + "drawn");
         }
         this.canvas = canvas;
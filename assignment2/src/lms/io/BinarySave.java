@@ -0,0 +1,326 @@
+package lms.io;
+
+import lms.exceptions.FileFormatException;
+import lms.grid.GameGrid;
+import lms.grid.GridComponent;
+import lms.logistics.Item;
+import lms.logistics.ItemRegistry;
+import lms.logistics.Path;
+import lms.logistics.TickScheduler;
+import lms.logistics.Transport;
+import lms.logistics.belts.Belt;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes grids in a compact binary save format, which holds the same information as the
+ * text format read by {@link GameLoader} but can be decoded without any text parsing.
+ * <p>
+ * All numbers are big-endian. A file consists of:
+ * <ol>
+ *     <li>the magic number {@link #MAGIC} and the format {@link #VERSION}, as ints;</li>
+ *     <li>the range of the grid, as an int;</li>
+ *     <li>the key table: the number of distinct item keys as an int, then each key as an int
+ *     length followed by that many bytes of UTF-8;</li>
+ *     <li>one byte per cell, in storage order (row by row from the top, as in the text layout):
+ *     0 for an unset cell, then 1 to 5 for "o", "w", "b", "p" and "r";</li>
+ *     <li>for each producer and receiver, in the order their cells appear, the index of its key in
+ *     the key table, as an int;</li>
+ *     <li>for each producer, receiver and belt, in the order their cells appear, the number of the
+ *     transport its output is linked to, as an int, or 0 if it has none. Transports are numbered
+ *     from 1 in the order their cells appear, as the text format numbers them.</li>
+ * </ol>
+ * Inputs are not stored: every link is restored on both ends from its output side.
+ */
+public final class BinarySave {
+
+    /**
+     * first four bytes of every binary save: "LMSB" in ASCII
+     */
+    public static final int MAGIC = 0x4C4D5342;
+
+    /**
+     * version of the format written by this class
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * encodings of the cell codes, indexed by code; code 0 is an unset cell
+     */
+    private static final String CODES = "?owbpr";
+
+    /**
+     * Prevents instantiation.
+     */
+    private BinarySave() {
+    }
+
+    /**
+     * Loads a binary save file by mapping it into memory, so the cells are decoded straight from
+     * the page cache without copying the file into a buffer first.
+     *
+     * @param save the file to load
+     * @return the grid stored in the file
+     * @throws IOException         if there is an error reading the file
+     * @throws FileFormatException if the file is not a valid binary save
+     */
+    public static LoadedGame load(java.nio.file.Path save)
+            throws IOException, FileFormatException {
+        try (FileChannel channel = FileChannel.open(save, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new FileFormatException("Binary save is larger than 2GB");
+            }
+            return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Loads a grid from the binary save held between the given buffer's position and limit. The
+     * buffer's position is moved past the save.
+     *
+     * @param buffer the buffer holding the save
+     * @return the grid stored in the buffer and its compiled tick order
+     * @throws FileFormatException      if the buffer does not hold a valid binary save
+     * @throws IllegalArgumentException if buffer is null
+     */
+    public static LoadedGame load(ByteBuffer buffer) throws FileFormatException {
+        if (buffer == null) {
+            throw new IllegalArgumentException();
+        }
+        try {
+            return decode(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new FileFormatException("Binary save ends unexpectedly", e);
+        }
+    }
+
+    /**
+     * Decodes a binary save, letting a BufferUnderflowException through if it is truncated.
+     *
+     * @param buffer the buffer holding the save
+     * @return the grid stored in the buffer and its compiled tick order
+     * @throws FileFormatException if the buffer does not hold a valid binary save
+     */
+    private static LoadedGame decode(ByteBuffer buffer) throws FileFormatException {
+        if (buffer.getInt() != MAGIC) {
+            throw new FileFormatException("Not a binary save");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new FileFormatException("Unsupported binary save version " + version);
+        }
+        int range = buffer.getInt();
+        // every cell takes a byte, so the grid cannot have more cells than bytes remain
+        if (range <= 0 || 3L * range * (range + 1) + 1 > buffer.remaining()) {
+            throw new FileFormatException("Invalid range " + range + " in binary save");
+        }
+
+        Item[] keys = new Item[checkCount(buffer.getInt(), buffer.remaining() / 4)];
+        for (int i = 0; i < keys.length; i++) {
+            byte[] name = new byte[checkCount(buffer.getInt(), buffer.remaining())];
+            if (name.length == 0) {
+                throw new FileFormatException("Empty item key in binary save");
+            }
+            buffer.get(name);
+            keys[i] = ItemRegistry.intern(new String(name, StandardCharsets.UTF_8));
+        }
+
+        // the cells are decoded straight from the buffer; transports are only counted on this
+        // pass, since the keys of the producers and receivers follow the cells
+        GameGrid grid = new GameGrid(range);
+        if (grid.size() > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int cells = buffer.position();
+        int transportCount = 0;
+        for (int i = 0; i < grid.size(); i++) {
+            byte code = buffer.get();
+            if (code == 1) {
+                grid.setComponentAt(i, GameLoader.EMPTY);
+            } else if (code == 2) {
+                grid.setComponentAt(i, GameLoader.WALL);
+            } else if (code >= 3 && code <= 5) {
+                transportCount++;
+            } else if (code != 0) {
+                throw new FileFormatException("Unknown cell code " + code + " at cell " + i);
+            }
+        }
+
+        Transport[] transports = new Transport[transportCount + 1];
+        int[] cellOfTransport = new int[transportCount + 1];
+        int id = 0;
+        for (int i = 0; id < transportCount; i++) {
+            byte code = buffer.get(cells + i);
+            if (code < 3) {
+                continue;
+            }
+            id++;
+            if (code == 3) {
+                transports[id] = new Belt(id);
+            } else {
+                int key = buffer.getInt();
+                if (key < 0 || key >= keys.length) {
+                    throw new FileFormatException("Unknown key " + key + " for node " + id);
+                }
+                transports[id] = code == 4 ? new Producer(id, keys[key])
+                        : new Receiver(id, keys[key]);
+            }
+            cellOfTransport[id] = i;
+            grid.setComponentAt(i, transports[id]);
+        }
+
+        for (id = 1; id <= transportCount; id++) {
+            int next = buffer.getInt();
+            if (next == 0) {
+                continue;
+            }
+            if (next < 0 || next > transportCount) {
+                throw new FileFormatException("Unknown node " + next + " linked from node " + id);
+            }
+            Transport from = transports[id];
+            Transport to = transports[next];
+            String problem = GameLoader.checkLink(from, grid.getCoordinateAt(cellOfTransport[id]),
+                    to, grid.getCoordinateAt(cellOfTransport[next]));
+            if (problem != null) {
+                throw new FileFormatException(problem);
+            }
+            GameLoader.applyLink(from, to);
+        }
+        return new LoadedGame(grid, new TickScheduler(grid));
+    }
+
+    /**
+     * Checks a count read from a save against an upper bound, so that a corrupt count cannot
+     * allocate more memory than the save could possibly describe.
+     *
+     * @param count the count read
+     * @param limit the most the count can be
+     * @return count
+     * @throws FileFormatException if count is negative or greater than limit
+     */
+    private static int checkCount(int count, int limit) throws FileFormatException {
+        if (count < 0 || count > limit) {
+            throw new FileFormatException("Invalid count " + count + " in binary save");
+        }
+        return count;
+    }
+
+    /**
+     * Writes the given grid to a binary save file, replacing the file if it exists.
+     *
+     * @param grid the grid to write
+     * @param save the file to write to
+     * @throws IOException              if there is an error writing the file
+     * @throws IllegalArgumentException if grid or save is null, or the grid cannot be saved (see
+     *                                  {@link #write(GameGrid, OutputStream)})
+     */
+    public static void write(GameGrid grid, java.nio.file.Path save) throws IOException {
+        if (save == null) {
+            throw new IllegalArgumentException();
+        }
+        try (OutputStream out = Files.newOutputStream(save)) {
+            write(grid, out);
+        }
+    }
+
+    /**
+     * Writes the given grid in the binary save format to the given stream. The stream is flushed
+     * but not closed.
+     *
+     * @param grid the grid to write
+     * @param out  the stream to write to
+     * @throws IOException              if there is an error writing to the stream
+     * @throws IllegalArgumentException if grid or out is null, if a cell is not a producer,
+     *                                  receiver, belt, wall, empty cell or unset cell, or if a
+     *                                  transport is linked to a transport that is not on the grid
+     */
+    public static void write(GameGrid grid, OutputStream out) throws IOException {
+        if (grid == null || out == null) {
+            throw new IllegalArgumentException();
+        }
+        Map<Transport, Integer> ids = GameWriter.number(grid);
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        for (Transport transport : ids.keySet()) {
+            if (transport instanceof Producer producer) {
+                keys.putIfAbsent(producer.getKey().toString(), keys.size());
+            } else if (transport instanceof Receiver receiver) {
+                keys.putIfAbsent(receiver.getKey().toString(), keys.size());
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(grid.getRange());
+
+        data.writeInt(keys.size());
+        for (String key : keys.keySet()) {
+            byte[] name = key.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(name.length);
+            data.write(name);
+        }
+
+        for (int i = 0; i < grid.size(); i++) {
+            data.writeByte(code(grid.getComponentAt(i)));
+        }
+        for (Transport transport : ids.keySet()) {
+            if (transport instanceof Producer producer) {
+                data.writeInt(keys.get(producer.getKey().toString()));
+            } else if (transport instanceof Receiver receiver) {
+                data.writeInt(keys.get(receiver.getKey().toString()));
+            }
+        }
+        for (Transport transport : ids.keySet()) {
+            Path output = transport.getOutput();
+            if (output == null) {
+                data.writeInt(0);
+                continue;
+            }
+            Integer next = ids.get(output.getNode());
+            if (next == null) {
+                throw new IllegalArgumentException("Linked to " + output.getNode()
+                        + ", which is not on the grid");
+            }
+            data.writeInt(next);
+        }
+        data.flush();
+    }
+
+    /**
+     * Returns the binary code of a cell.
+     *
+     * @param component the cell to encode
+     * @return the code of the cell
+     * @throws IllegalArgumentException if the cell has no code
+     */
+    private static int code(GridComponent component) {
+        String encoding = component.getEncoding();
+        if (component instanceof Producer) {
+            return 4;
+        } else if (component instanceof Receiver) {
+            return 5;
+        } else if (component instanceof Belt) {
+            return 3;
+        } else if (encoding.equals("ERROR")) {
+            return 0;
+        }
+        int code = encoding.length() == 1 ? CODES.indexOf(encoding.charAt(0)) : -1;
+        if (code != 1 && code != 2) {
+            throw new IllegalArgumentException("Cannot save a cell encoded as " + encoding);
+        }
+        return code;
+    }
+}
@@ -1,20 +1,29 @@
 package lms.io;
 
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.LinkedList;
 import java.util.Queue;
 
 import lms.exceptions.FileFormatException;
 import lms.grid.Coordinate;
 import lms.grid.GameGrid;
 import lms.grid.GridComponent;
+import lms.grid.Orientation;
 import lms.logistics.Item;
 import lms.logistics.Path;
+import lms.logistics.TickScheduler;
+import lms.logistics.Transport;
 import lms.logistics.belts.Belt;
 import lms.logistics.container.Producer;
 import lms.logistics.container.Receiver;
@@ -39,9 +48,21 @@ import lms.logistics.container.Receiver;
 public class GameLoader {
 
     /**
-     * Map stores nodes
+     * Pattern of a connection line: an id, a dash, then either another id (producer or receiver)
+     * or an optional previous id, a comma and an optional next id (belt). Compiled once.
      */
-    private static Map<Integer, GridComponent> nodeMap = new HashMap<>();
+    private static final Pattern CONNECTION_PATTERN =
+            Pattern.compile("(\\d+)-(\\d*)(?:,(-?\\d*))?");
+
+    /**
+     * Shared component for every wall cell
+     */
+    static final GridComponent WALL = () -> "w";
+
+    /**
+     * Shared component for every empty cell
+     */
+    static final GridComponent EMPTY = () -> "o";
 
     /**
      * default constructor
@@ -67,6 +88,14 @@ public class GameLoader {
      * or w = insert a lambda into
      * the grid that returns the appropriate character code
      *
+     * <p>
+     * The connections in the last section are applied as they are read: each producer, receiver
+     * and belt is linked to its neighbours with {@link Transport#setInput} and
+     * {@link Transport#setOutput}, on both ends of every link.
+     * <p>
+     * Everything read from one file is kept in a context object local to the call, so load may be
+     * called by several threads at once.
+     *
      * @param reader the reader to read from
      * @return the game grid loaded from the reader file
      * @throws IOException if there is an error reading from the reader
@@ -75,225 +104,432 @@ public class GameLoader {
      */
     public static GameGrid load(Reader reader)
             throws IOException, FileFormatException {
-        // current line in input.txt
-        String line;
-
-        // to determine size of grid. The size of a grid will be equal to range * 2 + 1.
-        int range;
-
-        // number of producers
-        int numOfProducer;
-
-        // number of receivers
-        int numOfReceiver;
-
-        // size of grid
-        int gridSize;
-
-        // current order of item
-        int itemId = 0;
-
         if (reader == null) {
             throw new NullPointerException();
         }
-        BufferedReader bfreader = new BufferedReader(reader);
+        LoadContext context = new LoadContext(new SaveTokenizer(reader));
+        SaveTokenizer tokens = context.tokens;
 
         // Section 1
-        line = bfreader.readLine();
-
-        try {
-            range = Integer.parseInt(line);
-            gridSize = range * 2 + 1;
-        } catch (Exception e) {
-            throw new FileFormatException();
+        // to determine size of grid. The size of a grid will be equal to range * 2 + 1.
+        int range = tokens.nextInt("the range of the grid");
+        if (range <= 0) {
+            throw tokens.error("Range must be positive", 1);
         }
-
-        splitLineExceptionCheck(bfreader.readLine());
+        tokens.nextSeparator();
 
         // Section 2
         // get number of producers && number of receivers
-        line = bfreader.readLine();
-        try {
-            numOfProducer = Integer.parseInt(line);
-        } catch (Exception e) {
-            throw new FileFormatException();
+        int numOfProducer = tokens.nextInt("the number of producers");
+        int numOfReceiver = tokens.nextInt("the number of receivers");
+        if (numOfProducer < 0 || numOfReceiver < 0) {
+            throw tokens.error("Number of producers and receivers cannot be negative", 1);
         }
+        tokens.nextSeparator();
 
-        line = bfreader.readLine();
-        try {
-            numOfReceiver = Integer.parseInt(line);
-        } catch (Exception e) {
-            throw new FileFormatException();
-        }
+        // Section 3,4   producer/receiver keys
+        context.producerKeys = readKeys(tokens, numOfProducer, "a producer key");
+        tokens.nextSeparator();
+        context.receiverKeys = readKeys(tokens, numOfReceiver, "a receiver key");
+        tokens.nextSeparator();
 
-        splitLineExceptionCheck(bfreader.readLine());
+        // Section 5
+        GameGrid gameGrid = new GameGrid(range);
+        readLayout(context, gameGrid);
+        tokens.nextSeparator();
 
-        // Section 3,4   producer/receiver keys
-        Queue<String> producerItemKeys = new LinkedList<>();
-        Queue<String> receiverItemKeys = new LinkedList<>();
-
-        for (int i = 0; i < numOfProducer; i++) {
-            try {
-                producerItemKeys.add(bfreader.readLine());
-            } catch (Exception e) {
-                throw new FileFormatException();
-            }
+        // SECTION 6
+        while (tokens.nextLineOrNull() != null) {
+            readConnection(context);
         }
 
-        splitLineExceptionCheck(bfreader.readLine());
+        return gameGrid;
+    }
 
-        for (int i = 0; i < numOfReceiver; i++) {
-            try {
-                receiverItemKeys.add(bfreader.readLine());
-            } catch (Exception e) {
-                throw new FileFormatException();
-            }
+    /**
+     * Loads a save file as {@link #load(Reader)} does, and compiles the tick order of its linked
+     * transports, so that the grid can be ticked straight away.
+     *
+     * @param reader the reader to read from
+     * @return the loaded grid and its tick order
+     * @throws IOException if there is an error reading from the reader
+     * @throws FileFormatException if the file is not in the correct format
+     * @throws NullPointerException if reader is null
+     */
+    public static LoadedGame loadGame(Reader reader) throws IOException, FileFormatException {
+        GameGrid gameGrid = load(reader);
+        return new LoadedGame(gameGrid, new TickScheduler(gameGrid));
+    }
 
+    /**
+     * Loads every given save file on the given executor, using {@link #load(Reader)}. The saves are
+     * loaded independently of each other, so one that fails to load does not affect the rest.
+     * <p>
+     * The returned futures are in the same order as saves. A future for a save that could not be
+     * read or parsed completes exceptionally with a {@link CompletionException} whose cause is the
+     * IOException or FileFormatException thrown while loading it.
+     *
+     * @param saves    the save files to load
+     * @param executor the executor to load them on
+     * @return one future per save, completing with the loaded grid
+     * @throws IllegalArgumentException if saves, executor or any of the saves is null
+     */
+    public static List<CompletableFuture<GameGrid>> loadAll(List<java.nio.file.Path> saves,
+                                                            Executor executor) {
+        if (saves == null || executor == null) {
+            throw new IllegalArgumentException();
+        }
+        for (java.nio.file.Path save : saves) {
+            if (save == null) {
+                throw new IllegalArgumentException();
+            }
         }
+        List<CompletableFuture<GameGrid>> results = new ArrayList<>(saves.size());
+        for (java.nio.file.Path save : saves) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try (Reader reader = Files.newBufferedReader(save)) {
+                    return load(reader);
+                } catch (IOException | FileFormatException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+        return results;
+    }
 
-        splitLineExceptionCheck(bfreader.readLine());
+    /**
+     * Reads the given number of item keys, one per line.
+     *
+     * @param tokens   tokenizer positioned before the first key
+     * @param count    number of keys to read
+     * @param expected description of a key, for error messages
+     * @return the keys, in the order they were read
+     * @throws IOException         if there is an error reading from the reader
+     * @throws FileFormatException if a key is missing or empty
+     */
+    private static Queue<String> readKeys(SaveTokenizer tokens, int count, String expected)
+            throws IOException, FileFormatException {
+        Queue<String> keys = new ArrayDeque<>(count);
+        for (int i = 0; i < count; i++) {
+            String key = tokens.nextLine(expected);
+            if (key.isEmpty()) {
+                throw tokens.error("Expected " + expected + " but found an empty line", 1);
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
 
-        // Section 5
-        GameGrid gameGrid = new GameGrid(range);
+    /**
+     * Reads the rows of the map layout into the grid, one row per line. The first row starts at
+     * the top left corner of the grid; each following row starts one step to the bottom left of the
+     * previous row until the middle row, then one step to the bottom right. Producers, receivers
+     * and belts are numbered from 1 in the order they are read.
+     *
+     * @param context  state of the load, positioned before the first row
+     * @param gameGrid grid to place the nodes in
+     * @throws IOException         if there is an error reading from the reader
+     * @throws FileFormatException if a row is missing, has the wrong number of nodes or contains an
+     *                             unknown node type, or if there are too few or too many keys
+     */
+    private static void readLayout(LoadContext context, GameGrid gameGrid)
+            throws IOException, FileFormatException {
+        SaveTokenizer tokens = context.tokens;
+        int range = gameGrid.getRange();
 
-        Coordinate topLeftCoord = new Coordinate();
+        long firstCoordOfRow = Coordinate.pack(0, 0);
         for (int i = 0; i < range; i++) {
-            topLeftCoord = topLeftCoord.getTopLeft();
+            firstCoordOfRow = Coordinate.neighbour(firstCoordOfRow, Orientation.TOP_LEFT);
         }
 
-        //System.out.println("range: " + range);
-        Coordinate firstCoordOfRow = topLeftCoord;
-        Coordinate currentCoord = firstCoordOfRow;
-
-        for (int i = 0; i < range; i++) {
-            //int numNodes = range + (range + 1) * (Math.abs(i));
-            //System.out.println("Number of nodes in row " + i + ": " + numNodes);
-            line = bfreader.readLine().trim();
-            String[] nodeTypes = line.split("\\s+");
-            int spaceCount = 0;
+        for (int row = 0; row <= 2 * range; row++) {
+            tokens.nextLine("row " + (row + 1) + " of the map layout");
+            int expected = 2 * range + 1 - Math.abs(row - range);
+            int count = 0;
+            long currentCoord = firstCoordOfRow;
             // traverse columns
-            for (int j = 0; j < nodeTypes.length; j++) {
-                String nodeType = nodeTypes[j];
-
-                if (!nodeType.equals(" ")) {
-                    spaceCount = 0;
-                    if (nodeType.equals("p") || nodeType.equals("r")
-                            || nodeType.equals("b")) {
-                        itemId++;
-                    }
-                    createNodeHelper(itemId, gameGrid, currentCoord,
-                            nodeType, producerItemKeys, receiverItemKeys);
-                    currentCoord = currentCoord.getRight();
+            while (tokens.nextToken()) {
+                if (++count > expected) {
+                    throw tokens.error("Row should have " + expected + " nodes",
+                            tokens.tokenColumn());
                 }
-
+                char nodeType = tokens.tokenLength() == 1 ? tokens.tokenChar() : '?';
+                if (nodeType == 'p' || nodeType == 'r' || nodeType == 'b') {
+                    context.itemId++;
+                }
+                createNodeHelper(context, gameGrid, currentCoord, nodeType);
+                currentCoord = Coordinate.neighbour(currentCoord, Orientation.RIGHT);
             }
-            firstCoordOfRow = firstCoordOfRow.getBottomLeft();
-            currentCoord = firstCoordOfRow;
+            if (count < expected) {
+                throw tokens.error("Row should have " + expected + " nodes", tokens.endColumn());
+            }
+            firstCoordOfRow = Coordinate.neighbour(firstCoordOfRow,
+                    row < range ? Orientation.BOTTOM_LEFT : Orientation.BOTTOM_RIGHT);
         }
 
-        for (int i = 0; i <= range; i++) {
-            line = bfreader.readLine().trim();
-            String[] nodeTypes = line.split("\\s+");
-            // traverse columns
-            for (String nodeType : nodeTypes) {
-                if (nodeType.equals("p") || nodeType.equals("r")
-                        || nodeType.equals("b")) {
-                    itemId++;
-                }
-                createNodeHelper(itemId, gameGrid, currentCoord,
-                        nodeType, producerItemKeys, receiverItemKeys);
-                currentCoord = currentCoord.getRight();
+        if (!context.producerKeys.isEmpty() || !context.receiverKeys.isEmpty()) {
+            throw tokens.error("Layout has fewer producers or receivers than keys were given",
+                    tokens.endColumn());
+        }
+    }
+
+    /**
+     * Reads a connection line and links the nodes it names. A belt is described as
+     * "id-previous,next", where either side may be left empty; a producer as "id-next" and a
+     * receiver as "id-previous". Links only need to be given from one side: the node at the other
+     * end is linked back automatically. Blank lines are skipped.
+     *
+     * @param context state of the load, positioned on the line
+     * @throws FileFormatException if the line is not a connection, leaves out the id of the node
+     *                             a producer or receiver is connected to, names an unknown node,
+     *                             describes a belt without any connection, uses the wrong form for
+     *                             a node, or describes a link that {@link #link} rejects
+     */
+    private static void readConnection(LoadContext context) throws FileFormatException {
+        SaveTokenizer tokens = context.tokens;
+        if (!tokens.nextToken()) {
+            return;
+        }
+        String line = tokens.token();
+        int column = tokens.tokenColumn();
+        if (tokens.nextToken()) {
+            throw tokens.error("Unexpected text after connection", tokens.tokenColumn());
+        }
+        Matcher matcher = CONNECTION_PATTERN.matcher(line);
+        if (!matcher.matches()) {
+            throw tokens.error("Expected a connection of the form id-previous,next", column);
+        }
+
+        Transport current = node(context, parseId(tokens, matcher.group(1), column), column);
+        if (matcher.group(3) == null) {
+            // producer or receiver form: id-other
+            int otherColumn = column + matcher.start(2);
+            if (matcher.group(2).isEmpty()) {
+                throw tokens.error("Expected the id of the connected node", otherColumn);
             }
-            firstCoordOfRow = firstCoordOfRow.getBottomRight();
-            currentCoord = firstCoordOfRow;
+            Transport other = node(context, parseId(tokens, matcher.group(2), otherColumn),
+                    otherColumn);
+            if (current instanceof Producer) {
+                link(context, current, other, otherColumn);
+            } else if (current instanceof Receiver) {
+                link(context, other, current, otherColumn);
+            } else {
+                throw tokens.error("Belt connections must be given as id-previous,next", column);
+            }
+            return;
+        }
 
+        // belt form: id-previous,next
+        int prevNodeId = matcher.group(2).isEmpty()
+                ? -1 : parseId(tokens, matcher.group(2), column + matcher.start(2));
+        int nextNodeId = matcher.group(3).isEmpty() || matcher.group(3).equals("-")
+                ? -1 : parseId(tokens, matcher.group(3), column + matcher.start(3));
+        if (prevNodeId == -1 && nextNodeId == -1) {
+            throw tokens.error("Belt has no connections", column);
+        }
+        if (current instanceof Producer || current instanceof Receiver) {
+            throw tokens.error("Node " + current.getId() + " is not a belt", column);
+        }
+        if (prevNodeId != -1) {
+            int prevColumn = column + matcher.start(2);
+            link(context, node(context, prevNodeId, prevColumn), current, prevColumn);
         }
+        if (nextNodeId != -1) {
+            int nextColumn = column + matcher.start(3);
+            link(context, current, node(context, nextNodeId, nextColumn), nextColumn);
+        }
+    }
 
-        splitLineExceptionCheck(bfreader.readLine());
+    /**
+     * Returns the producer, receiver or belt with the given id.
+     *
+     * @param context state of the load
+     * @param id      id of the node
+     * @param column  column the id was read from
+     * @return the node with the given id
+     * @throws FileFormatException if there is no node with the given id
+     */
+    private static Transport node(LoadContext context, int id, int column)
+            throws FileFormatException {
+        Transport node = context.nodes.get(id);
+        if (node == null) {
+            throw context.tokens.error("Unknown node " + id, column);
+        }
+        return node;
+    }
 
-        // SECTION 6
-        String beltPattern = "^\\d+-(\\d*)?(,-?\\d*)?$";
-        String producerPattern = "^\\d+-\\d+$";
-        String receiverPattern = "^\\d+-\\d+$";
-        //line = bfreader.readLine();
-
-        while ((line = bfreader.readLine()) != null) {
-            int currentNodeId = -1;
-            int prevNodeId = -1;
-            int nextNodeId = -1;
-
-            if (Pattern.matches(producerPattern, line)) {
-                String[] parts = line.split("-");
-                currentNodeId = Integer.parseInt(parts[0]);
-                nextNodeId = parts.length > 1 && !parts[1].isEmpty()
-                        ? Integer.parseInt(parts[1]) : -1;
-
-
-
-            } else if (Pattern.matches(beltPattern, line)) {
-                String[] parts = line.split("-|,");
-                currentNodeId = Integer.parseInt(parts[0]);
-                prevNodeId = parts.length > 1 && !parts[1].isEmpty()
-                        ? Integer.parseInt(parts[1]) : -1;
-                nextNodeId = parts.length > 2 && !parts[2].isEmpty()
-                        ? Integer.parseInt(parts[2]) : -1;
-
-                if (prevNodeId == -1 && nextNodeId == -1) {
-                    throw new FileFormatException();
-                }
-                for ( Map.Entry<Integer, GridComponent> entry : nodeMap.entrySet()) {
-                    int key = entry.getKey();
-                    GridComponent component = entry.getValue();
-                    if (key == currentNodeId) {
-                        if (component.getClass().getSimpleName().equals("Producer") || component.getClass().getSimpleName().equals("Receiver")) {
-                            throw new FileFormatException();
-                        }
-                    }
-                }
+    /**
+     * Links from's output to to, and to's input back to from. Linking two nodes that are already
+     * linked to each other does nothing.
+     *
+     * @param context state of the load
+     * @param from    node the items leave
+     * @param to      node the items arrive at
+     * @param column  column of the connection, for error messages
+     * @throws FileFormatException if the nodes are the same or not next to each other on the grid,
+     *                             if from is a receiver or to is a producer, or if either node is
+     *                             already linked to a different node on that side
+     */
+    private static void link(LoadContext context, Transport from, Transport to, int column)
+            throws FileFormatException {
+        String problem = checkLink(from, context.coordinates.get(from.getId()),
+                to, context.coordinates.get(to.getId()));
+        if (problem != null) {
+            throw context.tokens.error(problem, column);
+        }
+        applyLink(from, to);
+    }
 
-            }
+    /**
+     * Checks whether from's output may be linked to to.
+     *
+     * @param from     node the items leave
+     * @param fromCell position of from on the grid
+     * @param to       node the items arrive at
+     * @param toCell   position of to on the grid
+     * @return a description of why the nodes cannot be linked, or null if they can
+     */
+    static String checkLink(Transport from, Coordinate fromCell, Transport to, Coordinate toCell) {
+        if (from instanceof Receiver) {
+            return "Receiver " + from.getId() + " cannot have an output";
+        }
+        if (to instanceof Producer) {
+            return "Producer " + to.getId() + " cannot have an input";
+        }
+        if (!fromCell.isNeighbour(toCell)) {
+            return "Node " + from.getId() + " is not next to node " + to.getId();
+        }
+        if (from.getOutput() != null && from.getOutput() != to.getPath()) {
+            return "Node " + from.getId() + " is already connected to node "
+                    + from.getOutput().getNode().getId();
         }
+        if (to.getInput() != null && to.getInput() != from.getPath()) {
+            return "Node " + to.getId() + " is already connected to node "
+                    + to.getInput().getNode().getId();
+        }
+        return null;
+    }
 
-        return gameGrid;
+    /**
+     * Links from's output to to, and to's input back to from, leaving a side that is already
+     * linked alone. The link must have been accepted by {@link #checkLink}.
+     *
+     * @param from node the items leave
+     * @param to   node the items arrive at
+     */
+    static void applyLink(Transport from, Transport to) {
+        if (from.getOutput() == null) {
+            from.setOutput(to.getPath());
+        }
+        if (to.getInput() == null) {
+            to.setInput(from.getPath());
+        }
     }
 
-    private static void createNodeHelper(int itemId, GameGrid gameGrid,
-                                         Coordinate currentCoord, String nodeType,
-                                         Queue<String> producerKeys,
-                                         Queue<String> receiverKeys)
+    /**
+     * Parses a node id from a connection line.
+     *
+     * @param tokens tokenizer positioned on the line
+     * @param id     text of the id
+     * @param column column of the id
+     * @return the id
+     * @throws FileFormatException if the id does not fit in an int
+     */
+    private static int parseId(SaveTokenizer tokens, String id, int column)
+            throws FileFormatException {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw tokens.error("Node id is out of range", column);
+        }
+    }
+
+    private static void createNodeHelper(LoadContext context, GameGrid gameGrid,
+                                         long currentCoord, char nodeType)
             throws FileFormatException {
+        SaveTokenizer tokens = context.tokens;
+        int itemId = context.itemId;
 
-        if (nodeType.equals("p")) {
-            Producer producer = new Producer(itemId, new Item(producerKeys.remove()));
-            gameGrid.setCoordinate(currentCoord, producer);
-            nodeMap.put(itemId, producer);
+        int index = gameGrid.indexOf(currentCoord);
+        if (index < 0) {
+            // the row had more nodes than fit within the range of the grid
+            throw tokens.error("Node is outside the grid", tokens.tokenColumn());
+        }
 
-        } else if (nodeType.equals("r")) {
-            Receiver receiver = new Receiver(itemId, new Item(receiverKeys.remove()));
-            gameGrid.setCoordinate(currentCoord, receiver);
-            nodeMap.put(itemId, receiver);
-        } else if (nodeType.equals("b")) {
+        if (nodeType == 'p') {
+            if (context.producerKeys.isEmpty()) {
+                throw tokens.error("More producers than producer keys", tokens.tokenColumn());
+            }
+            Producer producer = new Producer(itemId, new Item(context.producerKeys.remove()));
+            gameGrid.setComponentAt(index, producer);
+            context.nodes.put(itemId, producer);
+            context.coordinates.put(itemId, gameGrid.getCoordinateAt(index));
+        } else if (nodeType == 'r') {
+            if (context.receiverKeys.isEmpty()) {
+                throw tokens.error("More receivers than receiver keys", tokens.tokenColumn());
+            }
+            Receiver receiver = new Receiver(itemId, new Item(context.receiverKeys.remove()));
+            gameGrid.setComponentAt(index, receiver);
+            context.nodes.put(itemId, receiver);
+            context.coordinates.put(itemId, gameGrid.getCoordinateAt(index));
+        } else if (nodeType == 'b') {
             Belt belt = new Belt(itemId);
-            gameGrid.setCoordinate(currentCoord, belt);
-            nodeMap.put(itemId, belt);
-
-        } else if (nodeType.equals("w")) {
-            GridComponent gridComponent = () -> "w";
-            gameGrid.setCoordinate(currentCoord, gridComponent);
-        } else if (nodeType.equals("o")) {
-            GridComponent gridComponent = () -> "o";
-            gameGrid.setCoordinate(currentCoord, gridComponent);
+            gameGrid.setComponentAt(index, belt);
+            context.nodes.put(itemId, belt);
+            context.coordinates.put(itemId, gameGrid.getCoordinateAt(index));
+        } else if (nodeType == 'w') {
+            gameGrid.setComponentAt(index, WALL);
+        } else if (nodeType == 'o') {
+            gameGrid.setComponentAt(index, EMPTY);
         } else {
-            throw new FileFormatException();
+            throw tokens.error("Unknown node type \"" + tokens.token() + "\"",
+                    tokens.tokenColumn());
         }
     }
 
-    private static void splitLineExceptionCheck(String line)
-            throws FileFormatException {
-        if (!line.startsWith("_____")) {
-            throw new FileFormatException();
+    /**
+     * Everything read so far from one save file. A new context is created for each call to
+     * {@link #load(Reader)}, so concurrent loads never share state.
+     */
+    private static final class LoadContext {
+
+        /**
+         * tokenizer reading the save file
+         */
+        private final SaveTokenizer tokens;
+
+        /**
+         * producers, receivers and belts read so far, by id
+         */
+        private final Map<Integer, Transport> nodes = new HashMap<>();
+
+        /**
+         * position of each producer, receiver and belt read so far, by id
+         */
+        private final Map<Integer, Coordinate> coordinates = new HashMap<>();
+
+        /**
+         * keys of the producers not yet placed, in the order they appear
+         */
+        private Queue<String> producerKeys;
+
+        /**
+         * keys of the receivers not yet placed, in the order they appear
+         */
+        private Queue<String> receiverKeys;
+
+        /**
+         * id of the last producer, receiver or belt placed
+         */
+        private int itemId;
+
+        /**
+         * Creates the context for a load reading from the given tokenizer.
+         *
+         * @param tokens tokenizer reading the save file
+         */
+        private LoadContext(SaveTokenizer tokens) {
+            this.tokens = tokens;
         }
     }
-
-
 }
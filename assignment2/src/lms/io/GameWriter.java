@@ -0,0 +1,155 @@
+package lms.io;
+
+import lms.grid.GameGrid;
+import lms.grid.GridComponent;
+import lms.logistics.Path;
+import lms.logistics.Transport;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a GameGrid in the text format read by {@link GameLoader#load(java.io.Reader)}.
+ * <p>
+ * Producers, receivers and belts are numbered from 1 in the order they appear in the layout, as
+ * the loader numbers them, whatever ids they had before. Every link is written from the side the
+ * items leave: producers as "id-next" and belts as "id-previous,next".
+ */
+public class GameWriter {
+
+    /**
+     * line separating the sections of a save file
+     */
+    private static final String SEPARATOR = "_____";
+
+    /**
+     * default constructor
+     */
+    public GameWriter() {
+    }
+
+    /**
+     * Writes the given grid to the given writer. The writer is not closed.
+     *
+     * @param grid   the grid to write
+     * @param writer the writer to write to
+     * @throws IOException              if there is an error writing to the writer
+     * @throws IllegalArgumentException if grid or writer is null, if a cell cannot be represented
+     *                                  in a save file, or if a transport is linked to a transport
+     *                                  that is not on the grid
+     */
+    public static void write(GameGrid grid, Writer writer) throws IOException {
+        if (grid == null || writer == null) {
+            throw new IllegalArgumentException();
+        }
+        Map<Transport, Integer> ids = number(grid);
+        int range = grid.getRange();
+
+        StringBuilder producers = new StringBuilder();
+        StringBuilder receivers = new StringBuilder();
+        int producerCount = 0;
+        int receiverCount = 0;
+        for (Transport transport : ids.keySet()) {
+            if (transport instanceof Producer producer) {
+                producers.append(producer.getKey()).append('\n');
+                producerCount++;
+            } else if (transport instanceof Receiver receiver) {
+                receivers.append(receiver.getKey()).append('\n');
+                receiverCount++;
+            }
+        }
+
+        writer.write(range + "\n" + SEPARATOR + "\n");
+        writer.write(producerCount + "\n" + receiverCount + "\n" + SEPARATOR + "\n");
+        writer.write(producers + SEPARATOR + "\n");
+        writer.write(receivers + SEPARATOR + "\n");
+
+        // rows have 2R+1-|row-R| cells each, in storage order
+        StringBuilder row = new StringBuilder();
+        int index = 0;
+        for (int r = 0; r <= 2 * range; r++) {
+            int indent = Math.abs(r - range);
+            row.setLength(0);
+            row.append(" ".repeat(indent));
+            for (int cell = 0; cell < 2 * range + 1 - indent; cell++) {
+                if (cell > 0) {
+                    row.append(' ');
+                }
+                row.append(encode(grid.getComponentAt(index++)));
+            }
+            writer.write(row.append('\n').toString());
+        }
+        writer.write(SEPARATOR + "\n");
+
+        for (Map.Entry<Transport, Integer> entry : ids.entrySet()) {
+            Transport transport = entry.getKey();
+            String next = idOf(transport.getOutput(), ids);
+            if (transport instanceof Producer) {
+                if (!next.isEmpty()) {
+                    writer.write(entry.getValue() + "-" + next + "\n");
+                }
+            } else if (!(transport instanceof Receiver)) {
+                String previous = idOf(transport.getInput(), ids);
+                if (!previous.isEmpty() || !next.isEmpty()) {
+                    writer.write(entry.getValue() + "-" + previous + "," + next + "\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Numbers the producers, receivers and belts of the grid from 1, in storage order.
+     *
+     * @param grid the grid to number
+     * @return the number of each transport on the grid, iterating in storage order
+     */
+    static Map<Transport, Integer> number(GameGrid grid) {
+        // transports compare by identity, so a linked map keeps them apart and in order
+        Map<Transport, Integer> ids = new LinkedHashMap<>();
+        for (int i = 0; i < grid.size(); i++) {
+            if (grid.getComponentAt(i) instanceof Transport transport) {
+                ids.putIfAbsent(transport, ids.size() + 1);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the save file encoding of a cell.
+     *
+     * @param component the cell to encode
+     * @return the single character naming the cell
+     * @throws IllegalArgumentException if the cell cannot be represented in a save file
+     */
+    private static char encode(GridComponent component) {
+        String encoding = component.getEncoding();
+        if (encoding.length() == 1 && "pbrwo".indexOf(encoding.charAt(0)) >= 0) {
+            return encoding.charAt(0);
+        }
+        throw new IllegalArgumentException("Cannot save a cell encoded as " + encoding);
+    }
+
+    /**
+     * Returns the number of the transport on the end of a link.
+     *
+     * @param path the end of the link, or null
+     * @param ids  the number of each transport on the grid
+     * @return the number as text, or an empty string if path is null
+     * @throws IllegalArgumentException if the transport is not on the grid
+     */
+    private static String idOf(Path path, Map<Transport, Integer> ids) {
+        if (path == null) {
+            return "";
+        }
+        Integer id = ids.get(path.getNode());
+        if (id == null) {
+            throw new IllegalArgumentException("Linked to " + path.getNode()
+                    + ", which is not on the grid");
+        }
+        return id.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package lms.io;
+
+import lms.grid.GameGrid;
+import lms.logistics.TickScheduler;
+
+/**
+ * A grid loaded from a save file together with the tick order of its transports, as returned by
+ * {@link GameLoader#loadGame(java.io.Reader)}. The transports are already linked as the save file
+ * describes, so the scheduler can tick the grid without discovering its chains first.
+ */
+public class LoadedGame {
+
+    /**
+     * the loaded grid
+     */
+    private final GameGrid grid;
+
+    /**
+     * tick order of the transports on grid
+     */
+    private final TickScheduler scheduler;
+
+    /**
+     * Creates a loaded game from a grid and the scheduler compiled for it.
+     *
+     * @param grid      the loaded grid
+     * @param scheduler the tick order of the transports on grid
+     * @throws IllegalArgumentException if grid or scheduler is null, or scheduler is not for grid
+     */
+    public LoadedGame(GameGrid grid, TickScheduler scheduler) {
+        if (grid == null || scheduler == null || scheduler.getGrid() != grid) {
+            throw new IllegalArgumentException();
+        }
+        this.grid = grid;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the loaded grid.
+     *
+     * @return the grid
+     */
+    public GameGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the tick order of the transports on the grid.
+     *
+     * @return the scheduler for the grid
+     */
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+}
@@ -0,0 +1,102 @@
+package lms.io;
+
+import lms.exceptions.FileFormatException;
+import lms.utility.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Converts save files between the text format read by {@link GameLoader} and the binary format
+ * read by {@link BinarySave}. The format of the input is detected from its first bytes, and the
+ * output is written in the other format.
+ */
+public final class SaveConverter {
+
+    /**
+     * Logger for conversion errors.
+     */
+    private static final Logger LOG = Logger.getLogger(SaveConverter.class);
+
+    /**
+     * Prevents instantiation.
+     */
+    private SaveConverter() {
+    }
+
+    /**
+     * Converts a text save into a binary save.
+     *
+     * @param text   the text save to read
+     * @param binary the binary save to write, replaced if it exists
+     * @throws IOException         if there is an error reading or writing either file
+     * @throws FileFormatException if the text save is not in the correct format
+     */
+    public static void toBinary(Path text, Path binary) throws IOException, FileFormatException {
+        try (Reader reader = Files.newBufferedReader(text)) {
+            BinarySave.write(GameLoader.load(reader), binary);
+        }
+    }
+
+    /**
+     * Converts a binary save into a text save.
+     *
+     * @param binary the binary save to read
+     * @param text   the text save to write, replaced if it exists
+     * @throws IOException         if there is an error reading or writing either file
+     * @throws FileFormatException if the binary save is not valid
+     */
+    public static void toText(Path binary, Path text) throws IOException, FileFormatException {
+        LoadedGame game = BinarySave.load(binary);
+        try (Writer writer = Files.newBufferedWriter(text)) {
+            GameWriter.write(game.getGrid(), writer);
+        }
+    }
+
+    /**
+     * Returns true if the given file starts with the magic number of a binary save.
+     *
+     * @param save the file to check
+     * @return true if save is a binary save
+     * @throws IOException if there is an error reading the file
+     */
+    public static boolean isBinary(Path save) throws IOException {
+        try (InputStream in = Files.newInputStream(save)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES
+                    && ByteBuffer.wrap(magic).getInt() == BinarySave.MAGIC;
+        }
+    }
+
+    /**
+     * Converts the save file named by the first argument into the other format, writing it to the
+     * file named by the second argument.
+     *
+     * @param args the save file to read and the save file to write
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            LOG.error(() -> "Usage: input_save output_save");
+            Logger.flush();
+            System.exit(1);
+        }
+        try {
+            Path input = Path.of(args[0]);
+            Path output = Path.of(args[1]);
+            if (isBinary(input)) {
+                toText(input, output);
+            } else {
+                toBinary(input, output);
+            }
+        } catch (IOException | FileFormatException e) {
+            LOG.error(() -> "Could not convert " + args[0], e);
+            Logger.flush();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package lms.io;
+
+import lms.exceptions.FileFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads a save file one line at a time and splits the current line into whitespace-separated
+ * tokens, keeping track of the line number and column so that errors can point at the exact
+ * position in the file.
+ * <p>
+ * Tokens are found by scanning the characters of the line in place, so reading a layout row does
+ * not split the line with a regular expression or copy each token out of it. Only the current line
+ * is held in memory.
+ */
+final class SaveTokenizer {
+
+    /**
+     * reader the lines come from
+     */
+    private final BufferedReader reader;
+
+    /**
+     * current line, or null before the first line and after the end of the file
+     */
+    private String line;
+
+    /**
+     * number of the current line, starting from 1
+     */
+    private int lineNumber;
+
+    /**
+     * index in line of the first character of the current token
+     */
+    private int tokenStart;
+
+    /**
+     * index in line just past the last character of the current token
+     */
+    private int tokenEnd;
+
+    /**
+     * Creates a tokenizer reading from the given reader.
+     *
+     * @param reader the reader to read from
+     */
+    SaveTokenizer(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered
+                ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * Moves to the next line of the file.
+     *
+     * @return the next line, or null if the end of the file has been reached
+     * @throws IOException if there is an error reading from the reader
+     */
+    String nextLineOrNull() throws IOException {
+        line = reader.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        tokenStart = 0;
+        tokenEnd = 0;
+        return line;
+    }
+
+    /**
+     * Moves to the next line of the file, which must exist.
+     *
+     * @param expected description of what the line should contain, for the error message
+     * @return the next line
+     * @throws IOException         if there is an error reading from the reader
+     * @throws FileFormatException if the end of the file has been reached
+     */
+    String nextLine(String expected) throws IOException, FileFormatException {
+        if (nextLineOrNull() == null) {
+            throw new FileFormatException("Unexpected end of file, expected " + expected,
+                    lineNumber + 1, 1);
+        }
+        return line;
+    }
+
+    /**
+     * Moves to the next line, which must be an integer (surrounding whitespace is ignored).
+     *
+     * @param expected description of what the integer is, for the error message
+     * @return the integer on the line
+     * @throws IOException         if there is an error reading from the reader
+     * @throws FileFormatException if there is no next line or it is not an integer
+     */
+    int nextInt(String expected) throws IOException, FileFormatException {
+        nextLine(expected);
+        try {
+            return Integer.parseInt(line.trim());
+        } catch (NumberFormatException e) {
+            throw error("Expected " + expected + " but found \"" + line + "\"", 1);
+        }
+    }
+
+    /**
+     * Moves to the next line, which must be a section separator (a line starting with "_____").
+     *
+     * @throws IOException         if there is an error reading from the reader
+     * @throws FileFormatException if there is no next line or it is not a separator
+     */
+    void nextSeparator() throws IOException, FileFormatException {
+        nextLine("a section separator");
+        if (!line.startsWith("_____")) {
+            throw error("Expected a section separator", 1);
+        }
+    }
+
+    /**
+     * Moves to the next token on the current line, skipping whitespace.
+     *
+     * @return true if there was another token on the line
+     */
+    boolean nextToken() {
+        int index = tokenEnd;
+        while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        tokenStart = index;
+        while (index < line.length() && !Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        tokenEnd = index;
+        return tokenEnd > tokenStart;
+    }
+
+    /**
+     * Returns the length of the current token.
+     *
+     * @return the number of characters in the token
+     */
+    int tokenLength() {
+        return tokenEnd - tokenStart;
+    }
+
+    /**
+     * Returns the first character of the current token.
+     *
+     * @return the first character of the token
+     */
+    char tokenChar() {
+        return line.charAt(tokenStart);
+    }
+
+    /**
+     * Returns the current token.
+     *
+     * @return the text of the token
+     */
+    String token() {
+        return line.substring(tokenStart, tokenEnd);
+    }
+
+    /**
+     * Returns the column of the current token.
+     *
+     * @return the column of the first character of the token, starting from 1
+     */
+    int tokenColumn() {
+        return tokenStart + 1;
+    }
+
+    /**
+     * Returns the column just past the end of the current line.
+     *
+     * @return the length of the line plus one
+     */
+    int endColumn() {
+        return line.length() + 1;
+    }
+
+    /**
+     * Returns the number of the current line.
+     *
+     * @return the line number, starting from 1
+     */
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Creates an exception for an error at the given column of the current line.
+     *
+     * @param message description of the error
+     * @param column  column of the error, starting from 1
+     * @return the exception to throw
+     */
+    FileFormatException error(String message, int column) {
+        return new FileFormatException(message, lineNumber, column);
+    }
+}
@@ -0,0 +1,18 @@
+package lms.logistics;
+
+/**
+ * Notified whenever the item held by a transport changes, so that an observer can follow the
+ * state of a grid by looking only at the transports that changed.
+ *
+ * @ass2
+ */
+public interface InventoryListener {
+
+    /**
+     * Called after the item held by the given transport has been replaced by a different item or
+     * emptied.
+     *
+     * @param transport the transport whose item changed
+     */
+    void inventoryChanged(Transport transport);
+}
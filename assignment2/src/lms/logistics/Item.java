@@ -1,17 +1,28 @@
 package lms.logistics;
 
-import java.util.Objects;
-
 /**
  * Class to manage the name of an Item object. Provides implementaions for equals, hashcode, and
  * toString.
+ * <p>
+ * Items obtained from {@link ItemRegistry#intern(String)} are canonical: there is one per name,
+ * and each has a small id, so two of them are equal exactly when they are the same object.
  */
 public class Item extends Object {
 
     /**
      * The name of item
      */
-    private String name;
+    private final String name;
+
+    /**
+     * id given by the ItemRegistry, or 0 if this item was not interned
+     */
+    private final int id;
+
+    /**
+     * hash code of name, computed once
+     */
+    private final int hash;
 
     /**
      * The constructor to instantiate an Item
@@ -20,10 +31,32 @@ public class Item extends Object {
      * @throws IllegalArgumentException if the item name is null or empty string
      */
     public Item(String name) throws IllegalArgumentException {
-        this.name = name;
+        this(name, 0);
+    }
+
+    /**
+     * Creates an item with the given id. Only the ItemRegistry gives out ids.
+     *
+     * @param name String
+     * @param id   the registry id of the item, or 0 if it is not interned
+     * @throws IllegalArgumentException if the item name is null or empty string
+     */
+    Item(String name, int id) throws IllegalArgumentException {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException();
         }
+        this.name = name;
+        this.id = id;
+        this.hash = name.hashCode();
+    }
+
+    /**
+     * Returns the id the {@link ItemRegistry} gave this item.
+     *
+     * @return the id, from 1 upwards, or 0 if this item was not interned
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -33,6 +66,8 @@ public class Item extends Object {
      * same values (as determined by the equals method of each property), then they are considered
      * equal. Note that the comparison is symmetric, meaning that a.equals(b) will return true if and
      * only if b.equals(a) returns true for any non-null object reference b.
+     * <p>
+     * Two interned items are compared by id alone, without looking at their names.
      *
      * @param o the object to compare for equality
      * @return true if the given object is equal to this object; false otherwise
@@ -46,7 +81,10 @@ public class Item extends Object {
             return false;
         }
         Item item = (Item) o;
-        return this.name == item.name;
+        if (id != 0 && item.id != 0) {
+            return id == item.id;
+        }
+        return hash == item.hash && name.equals(item.name);
     }
 
     /**
@@ -56,7 +94,7 @@ public class Item extends Object {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return hash;
     }
 
     /**
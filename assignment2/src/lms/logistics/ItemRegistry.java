@@ -0,0 +1,117 @@
+package lms.logistics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns item names into canonical {@link Item}s. Every name is given one Item, with a small id
+ * counting up from 1, the first time it is interned; interning the same name again returns the same
+ * Item. Canonical items can therefore be compared by identity, or by {@link Item#getId()} where an
+ * int is more convenient than a reference.
+ * <p>
+ * The registry is shared by the whole program and is safe to use from several threads. Items are
+ * never removed from it, which suits the small, fixed set of keys a factory uses.
+ *
+ * @ass2
+ */
+public final class ItemRegistry {
+
+    /**
+     * canonical item of each name interned so far
+     */
+    private static final Map<String, Item> ITEMS = new ConcurrentHashMap<>();
+
+    /**
+     * canonical items indexed by id; index 0 is unused. Replaced, never modified, when it grows
+     */
+    private static volatile Item[] byId = new Item[16];
+
+    /**
+     * number of items interned so far, which is also the id of the last one
+     */
+    private static int count;
+
+    /**
+     * Prevents instantiation.
+     */
+    private ItemRegistry() {
+    }
+
+    /**
+     * Returns the canonical item with the given name, creating it if this is the first time the
+     * name has been interned.
+     *
+     * @param name the name of the item
+     * @return the one item with that name
+     * @throws IllegalArgumentException if name is null or empty
+     */
+    public static Item intern(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        Item item = ITEMS.get(name);
+        return item != null ? item : create(name);
+    }
+
+    /**
+     * Returns the canonical item equal to the given item.
+     *
+     * @param item the item to intern
+     * @return item itself if it is canonical, otherwise the canonical item with its name
+     * @throws IllegalArgumentException if item is null
+     */
+    public static Item intern(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        return item.getId() != 0 ? item : intern(item.toString());
+    }
+
+    /**
+     * Creates and registers the canonical item for a name, unless another thread got there first.
+     *
+     * @param name the name of the item
+     * @return the one item with that name
+     */
+    private static synchronized Item create(String name) {
+        Item item = ITEMS.get(name);
+        if (item != null) {
+            return item;
+        }
+        item = new Item(name, ++count);
+        Item[] items = byId;
+        if (count == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+        }
+        items[count] = item;
+        // the volatile write publishes the new slot before the name is visible in ITEMS
+        byId = items;
+        ITEMS.put(name, item);
+        return item;
+    }
+
+    /**
+     * Returns the canonical item with the given id.
+     *
+     * @param id the id of the item
+     * @return the item with that id
+     * @throws IllegalArgumentException if no item has that id
+     */
+    public static Item get(int id) {
+        Item[] items = byId;
+        if (id <= 0 || id >= items.length || items[id] == null) {
+            throw new IllegalArgumentException("No item has id " + id);
+        }
+        return items[id];
+    }
+
+    /**
+     * Returns the number of items interned so far. Ids run from 1 to this number.
+     *
+     * @return the number of canonical items
+     */
+    public static int size() {
+        return ITEMS.size();
+    }
+}
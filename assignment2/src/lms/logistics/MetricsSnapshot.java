@@ -0,0 +1,129 @@
+package lms.logistics;
+
+/**
+ * The counts recorded by a {@link TransportMetrics} at one moment.
+ *
+ * @ass2
+ */
+public class MetricsSnapshot {
+
+    /**
+     * items moved on to the next transport
+     */
+    private final long moved;
+
+    /**
+     * ticks an item could not be moved because the next transport was full
+     */
+    private final long blocked;
+
+    /**
+     * items consumed by a receiver
+     */
+    private final long delivered;
+
+    /**
+     * items consumed whose latency is known
+     */
+    private final long timed;
+
+    /**
+     * total latency of the timed items, in ticks
+     */
+    private final long totalLatency;
+
+    /**
+     * largest latency of a timed item, in ticks
+     */
+    private final long maxLatency;
+
+    /**
+     * Creates a snapshot of the given counts.
+     *
+     * @param moved        items moved on to the next transport
+     * @param blocked      ticks an item could not be moved because the next transport was full
+     * @param delivered    items consumed by a receiver
+     * @param timed        items consumed whose latency is known
+     * @param totalLatency total latency of the timed items, in ticks
+     * @param maxLatency   largest latency of a timed item, in ticks
+     */
+    public MetricsSnapshot(long moved, long blocked, long delivered, long timed,
+                           long totalLatency, long maxLatency) {
+        this.moved = moved;
+        this.blocked = blocked;
+        this.delivered = delivered;
+        this.timed = timed;
+        this.totalLatency = totalLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    /**
+     * Returns the number of items the transport moved on to the next transport.
+     *
+     * @return the number of items moved
+     */
+    public long getMoved() {
+        return moved;
+    }
+
+    /**
+     * Returns the number of ticks an item could not be moved because the next transport was full.
+     * A belt with a high count relative to {@link #getMoved()} is congested downstream.
+     *
+     * @return the number of blocked ticks
+     */
+    public long getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * Returns the number of items a receiver consumed.
+     *
+     * @return the number of items delivered
+     */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Returns the number of delivered items whose latency is known.
+     *
+     * @return the number of timed deliveries
+     */
+    public long getTimed() {
+        return timed;
+    }
+
+    /**
+     * Returns the total latency of the timed deliveries.
+     *
+     * @return the total latency, in ticks
+     */
+    public long getTotalLatency() {
+        return totalLatency;
+    }
+
+    /**
+     * Returns the largest latency of a timed delivery.
+     *
+     * @return the largest latency, in ticks, or 0 if nothing has been timed
+     */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * Returns the mean number of ticks between an item being produced and consumed.
+     *
+     * @return the mean latency, or 0 if nothing has been timed
+     */
+    public double getMeanLatency() {
+        return timed == 0 ? 0 : (double) totalLatency / timed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("moved=%d blocked=%d delivered=%d meanLatency=%.1f maxLatency=%d",
+                moved, blocked, delivered, getMeanLatency(), maxLatency);
+    }
+}
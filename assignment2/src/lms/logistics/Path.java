@@ -1,10 +1,19 @@
 package lms.logistics;
 
+import java.io.IOException;
 import java.util.function.Consumer;
 
 /**
  * Maintains a doubly linked list to maintain the links for each node. Has previous and next item.
  * The path can't have an empty node, as it will throw an illegal argument exception.
+ * <p>
+ * The head, tail and size of a chain are remembered once computed, so {@link #head()},
+ * {@link #tail()} and {@link #size()} are constant time until a link of that chain is rewired
+ * with {@link #setPrevious(Path)} or {@link #setNext(Path)}, which invalidates them. Rewiring
+ * other chains leaves them valid.
+ * <p>
+ * A {@link TopologyListener} can be set to be told whenever this path is relinked; a
+ * {@link lms.grid.GameGrid} sets one on the path of every transport placed on it.
  *
  * @version 1.0
  * @ass2
@@ -24,6 +33,16 @@ public class Path extends Object {
      */
     private Path next;
 
+    /**
+     * head, tail and size of the chain this path belongs to, as last computed
+     */
+    private Chain chain;
+
+    /**
+     * notified when this path is relinked, or null
+     */
+    private TopologyListener listener;
+
     /**
      * Constructs a new Path object with the same Transport node, previous Path, and next Path as the
      * specified Path object.
@@ -85,11 +104,7 @@ public class Path extends Object {
      * @return the head of this Path.
      */
     public Path head() {
-        Path current = this;
-        while (current.previous != null) {
-            current = current.previous;
-        }
-        return current;
+        return chain().head;
     }
 
     /**
@@ -108,13 +123,73 @@ public class Path extends Object {
      * @return the tail of this Path.
      */
     public Path tail() {
-        Path current = this;
-        while (current.next != null) {
-            current = current.next;
+        return chain().tail;
+    }
+
+    /**
+     * Returns the number of elements in the chain this Path belongs to, from its head to its tail
+     * (inclusive).
+     *
+     * @return the size of the chain.
+     */
+    public int size() {
+        return chain().size;
+    }
+
+    /**
+     * Returns the head, tail and size of the chain this Path belongs to, walking the chain only if
+     * one of its links has been rewired since they were last computed.
+     * <p>
+     * When every link of the chain points both ways (each next's previous is the path it came
+     * from), every element of the chain shares the same head, tail and size, so the result is
+     * stored on all of them and the walk is paid once per chain rather than once per element.
+     * Since every element holds it, rewiring any of them can invalidate it (see
+     * {@link #invalidateChain()}). Otherwise the walk passed through paths that do not hold the
+     * result, so it is not stored.
+     *
+     * @return the chain of this path.
+     */
+    private Chain chain() {
+        Chain current = chain;
+        if (current != null && !current.stale) {
+            return current;
+        }
+
+        boolean symmetric = true;
+        int size = 1;
+        Path head = this;
+        while (head.previous != null) {
+            symmetric &= head.previous.next == head;
+            head = head.previous;
+            size++;
+        }
+        Path tail = this;
+        while (tail.next != null) {
+            symmetric &= tail.next.previous == tail;
+            tail = tail.next;
+            size++;
+        }
+
+        current = new Chain(head, tail, size);
+        if (symmetric) {
+            for (Path path = head; path != null; path = path.next) {
+                path.chain = current;
+            }
         }
         return current;
     }
 
+    /**
+     * Marks the chain this path was last found in as stale, for every path of that chain, since
+     * one of its links is about to change.
+     */
+    private void invalidateChain() {
+        if (chain != null) {
+            chain.stale = true;
+            chain = null;
+        }
+    }
+
     /**
      * Returns the previous Path object in the chain.
      *
@@ -130,7 +205,9 @@ public class Path extends Object {
      * @param path the previous path to be set for this path.
      */
     public void setPrevious(Path path) {
+        invalidateChain();
         this.previous = path;
+        relinked();
     }
 
     /**
@@ -148,7 +225,36 @@ public class Path extends Object {
      * @param path the next path to be set for this path
      */
     public void setNext(Path path) {
+        invalidateChain();
         this.next = path;
+        relinked();
+    }
+
+    /**
+     * Returns the listener notified when this path is relinked.
+     *
+     * @return the listener, or null if there is none
+     */
+    public TopologyListener getTopologyListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the listener notified when this path is relinked, replacing any listener set before.
+     *
+     * @param listener the listener, or null to stop notifying
+     */
+    public void setTopologyListener(TopologyListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Notifies the listener, if there is one, that this path has been relinked.
+     */
+    private void relinked() {
+        if (listener != null) {
+            listener.pathRelinked(this);
+        }
     }
 
     /**
@@ -194,24 +300,100 @@ public class Path extends Object {
      * toString that provides a list of Path nodes from a Producer, along the belt to a Receiver.
      *
      * @return String representing the entirety of the best path links in the format:
+     * "START -> &lt;Producer-1&gt; -> &lt;Belt-2&gt; -> &lt;Receiver-3&gt; -> END"
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("START -> ");
-        toStringHelper(sb, this);
-        sb.append(" -> END");
+        return describe(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the nodes from this Path to the end of its chain, as {@link #toString()} does, but
+     * with at most maxNodes nodes, as {@link #describe(Appendable, int)} does.
+     *
+     * @param maxNodes the most nodes to include
+     * @return String representing at most maxNodes links of the path
+     * @throws IllegalArgumentException if maxNodes &lt; 1
+     */
+    public String describe(int maxNodes) {
+        // most nodes print as " -> <Belt-123>"; the chain is not measured, since that may mean
+        // walking all of it, so past a few dozen nodes the builder grows as it is written
+        StringBuilder sb = new StringBuilder(16 + 16 * Math.min(maxNodes, 64));
+        try {
+            describe(sb, maxNodes);
+        } catch (IOException e) {
+            throw new AssertionError(e); // StringBuilder does not throw
+        }
         return sb.toString();
     }
 
-    private void toStringHelper(StringBuilder sb, Path current) {
-        sb.append("<").append(current.getNode().getClass()
-                .getSimpleName()).append("-").append(current.getNode()
-                .getId()).append(">");
+    /**
+     * Writes the nodes from this Path to the end of its chain to the given sink, in the same format
+     * as {@link #toString()}, without building the whole string first. At most maxNodes nodes are
+     * written; if the chain continues past them, "..." is written in place of the rest.
+     * <p>
+     * The chain is walked iteratively, so long chains do not use any stack.
+     *
+     * @param out      the sink to write to
+     * @param maxNodes the most nodes to write
+     * @throws IOException              if out throws an IOException
+     * @throws IllegalArgumentException if out is null or maxNodes &lt; 1
+     */
+    public void describe(Appendable out, int maxNodes) throws IOException {
+        if (out == null || maxNodes < 1) {
+            throw new IllegalArgumentException();
+        }
+        out.append("START");
+        Path current = this;
+        for (int written = 0; current != null; written++) {
+            out.append(" -> ");
+            if (written == maxNodes) {
+                out.append("...");
+                break;
+            }
+            out.append('<').append(current.node.getClass().getSimpleName()).append('-')
+                    .append(Integer.toString(current.node.getId())).append('>');
+            current = current.next;
+        }
+        out.append(" -> END");
+    }
+
+    /**
+     * Head, tail and size of a chain of paths, valid until a link of the chain is rewired.
+     */
+    private static final class Chain {
+
+        /**
+         * first path of the chain
+         */
+        private final Path head;
+
+        /**
+         * last path of the chain
+         */
+        private final Path tail;
+
+        /**
+         * number of paths in the chain
+         */
+        private final int size;
+
+        /**
+         * true once a link of the chain has been rewired
+         */
+        private boolean stale;
 
-        if (current.next != null) {
-            sb.append(" -> ");
-            toStringHelper(sb, current.next);
+        /**
+         * Creates a description of a chain.
+         *
+         * @param head first path of the chain
+         * @param tail last path of the chain
+         * @param size number of paths in the chain
+         */
+        private Chain(Path head, Path tail, int size) {
+            this.head = head;
+            this.tail = tail;
+            this.size = size;
         }
     }
 }
@@ -0,0 +1,280 @@
+package lms.logistics;
+
+import lms.grid.GameGrid;
+import lms.utility.Tickable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles the Transport graph of a GameGrid into a flat tick order, so that a tick is a single
+ * pass over an array instead of a search for every chain.
+ * <p>
+ * Each chain of connected transports is stored from its tail to its head, which is the order in
+ * which {@link Path#applyAll(java.util.function.Consumer)} visits it, and the chains are stored one
+ * after the other. The order is compiled once and only recompiled when the cells of the grid, or
+ * the links between the paths of its transports, have changed since it was compiled
+ * ({@link GameGrid#getModificationCount()}). Relinking paths on another grid does not make it
+ * stale.
+ *
+ * @ass2
+ */
+public class TickScheduler implements Tickable {
+
+    /**
+     * grid whose transports are scheduled
+     */
+    private final GameGrid grid;
+
+    /**
+     * every scheduled transport, chain after chain, each chain from tail to head
+     */
+    private Transport[] order;
+
+    /**
+     * index in order of the first transport of each chain, followed by order.length
+     */
+    private int[] chainStart;
+
+    /**
+     * position in order of the transport each scheduled transport outputs to, or -1
+     */
+    private int[] successors;
+
+    /**
+     * position in order of each scheduled transport
+     */
+    private final Map<Transport, Integer> positions = new IdentityHashMap<>();
+
+    /**
+     * grid modification count the order was compiled against
+     */
+    private int compiledGrid;
+
+    /**
+     * number of times the order has been compiled
+     */
+    private int compileCount;
+
+    /**
+     * Creates a scheduler for the transports on the given grid, and compiles its tick order.
+     *
+     * @param grid the grid to schedule.
+     * @throws IllegalArgumentException if grid is null
+     */
+    public TickScheduler(GameGrid grid) {
+        if (grid == null) {
+            throw new IllegalArgumentException("Grid cannot be null");
+        }
+        this.grid = grid;
+        compile();
+    }
+
+    /**
+     * Rebuilds the tick order from the current state of the grid and its paths.
+     * <p>
+     * Every transport on the grid is scheduled exactly once. Starting from a transport that has not
+     * been scheduled yet, its chain is followed forward to the tail and then walked backward to the
+     * head. The walks stop early at a transport that has already been scheduled, so a cycle of
+     * paths is scheduled once instead of looping forever.
+     */
+    public void compile() {
+        compiledGrid = grid.getModificationCount();
+        compileCount++;
+
+        List<Transport> nodes = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        Set<Transport> scheduled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        grid.transports().forEach(transport -> {
+            if (scheduled.contains(transport)) {
+                return;
+            }
+            Path tail = findTail(transport.getPath(), scheduled);
+            starts.add(nodes.size());
+            for (Path path = tail; path != null; path = path.getPrevious()) {
+                if (!scheduled.add(path.getNode())) {
+                    break;
+                }
+                nodes.add(path.getNode());
+            }
+        });
+
+        order = nodes.toArray(new Transport[0]);
+        positions.clear();
+        for (int i = 0; i < order.length; i++) {
+            positions.put(order[i], i);
+        }
+        successors = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            Path output = order[i].getOutput();
+            successors[i] = output == null ? -1 : indexOf(output.getNode());
+        }
+        chainStart = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            chainStart[i] = starts.get(i);
+        }
+        chainStart[starts.size()] = order.length;
+    }
+
+    /**
+     * Follows the given path forward until its tail, stopping before a transport that has already
+     * been scheduled or that was already seen on this walk.
+     *
+     * @param start     path to start from.
+     * @param scheduled transports that have already been scheduled.
+     * @return the last path reached.
+     */
+    private static Path findTail(Path start, Set<Transport> scheduled) {
+        Set<Transport> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Path current = start;
+        seen.add(current.getNode());
+        while (current.getNext() != null) {
+            Transport next = current.getNext().getNode();
+            if (scheduled.contains(next) || !seen.add(next)) {
+                break;
+            }
+            current = current.getNext();
+        }
+        return current;
+    }
+
+    /**
+     * Recompiles the tick order if the grid or the paths of its transports have changed since it
+     * was last compiled.
+     *
+     * @return true if the order was recompiled.
+     */
+    public boolean compileIfStale() {
+        if (compiledGrid == grid.getModificationCount()) {
+            return false;
+        }
+        compile();
+        return true;
+    }
+
+    /**
+     * Returns the number of times the tick order has been compiled. Anything derived from the tick
+     * order is still valid as long as this value has not changed since it was derived.
+     *
+     * @return the compile count.
+     */
+    public int getCompileCount() {
+        return compileCount;
+    }
+
+    /**
+     * Returns the grid being scheduled.
+     *
+     * @return the scheduled grid.
+     */
+    public GameGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the number of chains in the tick order.
+     *
+     * @return the number of chains.
+     */
+    public int getChainCount() {
+        return chainStart.length - 1;
+    }
+
+    /**
+     * Returns the path of the first transport of the given chain, from which the whole chain can
+     * be printed.
+     *
+     * @param chain index of the chain.
+     * @return the path at the head of the chain.
+     * @throws IndexOutOfBoundsException if chain &lt; 0 || chain &gt;= getChainCount()
+     */
+    public Path getChainHead(int chain) {
+        return order[chainStart[chain + 1] - 1].getPath();
+    }
+
+    /**
+     * Returns the position in the tick order of the first transport of the given chain. Chain c
+     * spans the positions [getChainStart(c), getChainStart(c + 1)), and
+     * getChainStart(getChainCount()) is size().
+     *
+     * @param chain index of the chain, or getChainCount().
+     * @return the position of the tail of the chain.
+     * @throws IndexOutOfBoundsException if chain &lt; 0 || chain &gt; getChainCount()
+     */
+    public int getChainStart(int chain) {
+        return chainStart[chain];
+    }
+
+    /**
+     * Returns the number of transports in the tick order.
+     *
+     * @return the number of scheduled transports.
+     */
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Returns the transport at the given position in the tick order.
+     *
+     * @param index position in the tick order.
+     * @return the transport ticked at that position.
+     * @throws IndexOutOfBoundsException if index &lt; 0 || index &gt;= size()
+     */
+    public Transport getTransport(int index) {
+        return order[index];
+    }
+
+    /**
+     * Returns the position of the given transport in the tick order.
+     *
+     * @param transport the transport to look up.
+     * @return the position of the transport, or -1 if it is not scheduled.
+     */
+    public int indexOf(Transport transport) {
+        Integer position = positions.get(transport);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Returns the position in the tick order of the transport that the transport at the given
+     * position outputs to.
+     *
+     * @param index position in the tick order.
+     * @return the position of its successor, or -1 if it has no output or outputs to a transport
+     * that is not scheduled.
+     * @throws IndexOutOfBoundsException if index &lt; 0 || index &gt;= size()
+     */
+    public int getSuccessor(int index) {
+        return successors[index];
+    }
+
+    /**
+     * Ticks every transport of the given chain, from its tail to its head. The tick order is used
+     * as it was last compiled.
+     *
+     * @param chain index of the chain.
+     * @throws IndexOutOfBoundsException if chain &lt; 0 || chain &gt;= getChainCount()
+     */
+    public void tickChain(int chain) {
+        for (int i = chainStart[chain]; i < chainStart[chain + 1]; i++) {
+            order[i].tick();
+        }
+    }
+
+    /**
+     * Recompiles the tick order if it is stale, then ticks every scheduled transport.
+     */
+    @Override
+    public void tick() {
+        compileIfStale();
+        for (Transport transport : order) {
+            transport.tick();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package lms.logistics;
+
+/**
+ * Notified whenever a path is linked to or unlinked from another path, so that anything derived
+ * from the shape of the paths on a grid, such as a tick order, can tell when it is out of date.
+ *
+ * @ass2
+ */
+public interface TopologyListener {
+
+    /**
+     * Called after the previous or next path of the given path has been set.
+     *
+     * @param path the path that was relinked
+     */
+    void pathRelinked(Path path);
+}
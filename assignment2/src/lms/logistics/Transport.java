@@ -30,6 +30,16 @@ public abstract class Transport implements Tickable, GridComponent {
      */
     private final int id;
 
+    /**
+     * metrics recorded as this transport ticks, or null if it is not instrumented
+     */
+    private TransportMetrics metrics;
+
+    /**
+     * notified whenever inventory changes, or null
+     */
+    private InventoryListener listener;
+
     /**
      * Constructor providing unique ID Provides details for each node and its connected nodes
      *
@@ -103,7 +113,85 @@ public abstract class Transport implements Tickable, GridComponent {
      * @param inventory Item, the containing the name of the node
      */
     public void setInventory(Item inventory) {
+        Item previous = this.inventory;
         this.inventory = inventory;
+        if (previous != inventory) {
+            changed();
+        }
+    }
+
+    /**
+     * Returns the item held by this transport. Unlike {@link #getInventory()}, this is never
+     * overridden, so it also reveals an item waiting in a Receiver to be consumed. Used to
+     * checkpoint the state of a simulation.
+     *
+     * @return the item held, or null if empty
+     */
+    public final Item peekInventory() {
+        return inventory;
+    }
+
+    /**
+     * Replaces the item held by this transport. Unlike {@link #setInventory(Item)}, this is never
+     * overridden, so it works on every kind of transport. Used to restore a checkpoint of a
+     * simulation.
+     *
+     * @param inventory the item to hold, or null to empty the transport
+     */
+    public final void restoreInventory(Item inventory) {
+        Item previous = this.inventory;
+        this.inventory = inventory;
+        if (previous != inventory) {
+            changed();
+        }
+    }
+
+    /**
+     * Returns the listener notified when the item held by this transport changes.
+     *
+     * @return the listener, or null if there is none
+     */
+    public InventoryListener getInventoryListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the listener notified when the item held by this transport changes, replacing any
+     * listener set before.
+     *
+     * @param listener the listener, or null to stop notifying
+     */
+    public void setInventoryListener(InventoryListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Notifies the listener, if there is one, that the item held by this transport has changed.
+     */
+    private void changed() {
+        if (listener != null) {
+            listener.inventoryChanged(this);
+        }
+    }
+
+    /**
+     * Returns the metrics this transport records as it ticks.
+     *
+     * @return the metrics, or null if this transport does not record any
+     */
+    public TransportMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics this transport records as it ticks. Transports record nothing until they
+     * are given metrics, so ticking costs one null check when instrumentation is off.
+     *
+     * @param metrics the metrics to record, or null to stop recording
+     * @see TransportMetrics#attach(lms.grid.GameGrid)
+     */
+    public void setMetrics(TransportMetrics metrics) {
+        this.metrics = metrics;
     }
 
     /**
@@ -135,6 +223,13 @@ public abstract class Transport implements Tickable, GridComponent {
             if (nextNode.inventory == null) {         /* its inventory is empty */
                 nextNode.inventory = inventory;       /* transfer inventory to the next inventory */
                 inventory = null;                     /* and remove inventory from self */
+                changed();
+                nextNode.changed();
+                if (metrics != null) {
+                    metrics.moved(nextNode.metrics);
+                }
+            } else if (metrics != null) {
+                metrics.blocked();
             }
         }
     }
@@ -0,0 +1,179 @@
+package lms.logistics;
+
+import lms.grid.GameGrid;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what one transport does as it ticks: the items it moves on, the ticks an item spends
+ * blocked because the next transport is full, and, for a receiver, the items it consumes and how
+ * many ticks after being produced they arrived.
+ * <p>
+ * Metrics are opt-in: a transport only records them once it has been given a TransportMetrics with
+ * {@link Transport#setMetrics(TransportMetrics)}, usually by {@link #attach(GameGrid)}. The counts
+ * are held in {@link LongAdder}s, so {@link #snapshot()} can be called from any thread (for example
+ * a GUI) while the grid ticks on another, and so transports ticked by different threads never
+ * contend on a shared counter.
+ * <p>
+ * Latency is measured by stamping each new item with the tick count of its producer, carrying the
+ * stamp along with the item, and comparing it with the tick count of the receiver that consumes
+ * it. It is only measured between transports that were given their metrics at the same tick, and
+ * items already on the grid at that tick are counted as delivered but not timed.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * Map<Transport, TransportMetrics> metrics = TransportMetrics.attach(grid);
+ * scheduler.tick();
+ * ...
+ * MetricsSnapshot belt = metrics.get(transport).snapshot();
+ * }</pre>
+ *
+ * @ass2
+ */
+public final class TransportMetrics {
+
+    /**
+     * stamp of an item whose production tick is unknown
+     */
+    private static final long UNKNOWN = -1;
+
+    /**
+     * items moved on to the next transport
+     */
+    private final LongAdder moved = new LongAdder();
+
+    /**
+     * ticks an item could not be moved because the next transport was full
+     */
+    private final LongAdder blocked = new LongAdder();
+
+    /**
+     * items consumed by a receiver
+     */
+    private final LongAdder delivered = new LongAdder();
+
+    /**
+     * items consumed by a receiver whose latency is known
+     */
+    private final LongAdder timed = new LongAdder();
+
+    /**
+     * total latency of the timed items
+     */
+    private final LongAdder totalLatency = new LongAdder();
+
+    /**
+     * largest latency of a timed item
+     */
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+    /**
+     * ticks a producer or receiver has had since it was given these metrics; only ever written by
+     * the thread ticking the transport
+     */
+    private long ticks;
+
+    /**
+     * producer tick count stamped on the item held by the transport, or UNKNOWN; only ever written
+     * by the threads ticking the transport and the one before it, which are the same thread
+     */
+    private long stamp = UNKNOWN;
+
+    /**
+     * Gives every transport on a grid new metrics, all starting at the same tick, replacing any it
+     * had.
+     *
+     * @param grid the grid to instrument
+     * @return the metrics of each transport, in storage order
+     * @throws IllegalArgumentException if grid is null
+     */
+    public static Map<Transport, TransportMetrics> attach(GameGrid grid) {
+        if (grid == null) {
+            throw new IllegalArgumentException();
+        }
+        Map<Transport, TransportMetrics> metrics = new LinkedHashMap<>();
+        grid.transports().forEach(transport -> {
+            TransportMetrics cells = new TransportMetrics();
+            transport.setMetrics(cells);
+            metrics.put(transport, cells);
+        });
+        return metrics;
+    }
+
+    /**
+     * Stops every transport on a grid recording metrics.
+     *
+     * @param grid the grid to stop instrumenting
+     * @throws IllegalArgumentException if grid is null
+     */
+    public static void detach(GameGrid grid) {
+        if (grid == null) {
+            throw new IllegalArgumentException();
+        }
+        grid.transports().forEach(transport -> transport.setMetrics(null));
+    }
+
+    /**
+     * Records that the transport moved its item on, carrying the item's stamp to the metrics of
+     * the transport it moved to.
+     *
+     * @param next metrics of the transport the item moved to, or null if it has none
+     */
+    void moved(TransportMetrics next) {
+        moved.increment();
+        if (next != null) {
+            next.stamp = stamp;
+        }
+        stamp = UNKNOWN;
+    }
+
+    /**
+     * Records that the transport could not move its item because the next transport was full.
+     */
+    void blocked() {
+        blocked.increment();
+    }
+
+    /**
+     * Records a tick of a producer or receiver. Called at the start of every tick of the
+     * container.
+     */
+    public void countTick() {
+        ticks++;
+    }
+
+    /**
+     * Records that a producer has just made the item it holds, stamping it with the current tick.
+     */
+    public void produced() {
+        stamp = ticks;
+    }
+
+    /**
+     * Records that a receiver has consumed the item it holds, timing it if its stamp is known.
+     */
+    public void delivered() {
+        delivered.increment();
+        if (stamp != UNKNOWN) {
+            long latency = ticks - stamp;
+            timed.increment();
+            totalLatency.add(latency);
+            maxLatency.accumulate(latency);
+        }
+        stamp = UNKNOWN;
+    }
+
+    /**
+     * Returns the counts recorded so far. Counts recorded while the snapshot is being taken may
+     * or may not be included.
+     *
+     * @return a snapshot of the counts
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(moved.sum(), blocked.sum(), delivered.sum(), timed.sum(),
+                totalLatency.sum(), maxLatency.get());
+    }
+}
@@ -1,6 +1,7 @@
 package lms.logistics.container;
 
 import lms.logistics.Item;
+import lms.logistics.ItemRegistry;
 import lms.logistics.Transport;
 
 /**
@@ -17,7 +18,9 @@ public abstract class Container extends Transport {
     private final Item key;
 
     /**
-     * Constructs a new Container object with the specified ID and key.
+     * Constructs a new Container object with the specified ID and key. The key is replaced by its
+     * canonical item from the {@link ItemRegistry}, so that items produced and received with the
+     * same name are the same object.
      *
      * @param id  the ID of the container
      * @param key the key to use for accessing the container's inventory
@@ -28,8 +31,8 @@ public abstract class Container extends Transport {
         if (key == null) {
             throw new IllegalArgumentException("Bad key");
         }
-        super.setInventory(key);
-        this.key = key;
+        this.key = ItemRegistry.intern(key);
+        super.setInventory(this.key);
     }
 
     /**
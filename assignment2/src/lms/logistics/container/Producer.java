@@ -3,6 +3,7 @@ package lms.logistics.container;
 import lms.exceptions.UnsupportedActionException;
 import lms.logistics.Item;
 import lms.logistics.Path;
+import lms.logistics.TransportMetrics;
 
 /**
  * The Producer class represents a node in the fictional factory/machine that is responsible for
@@ -29,6 +30,9 @@ import lms.logistics.Path;
  */
 public class Producer extends Container {
 
+    /**
+     * number of ticks this producer has had; it produces on odd counts
+     */
     private int counter;
 
     public Producer(int id, Item key) {
@@ -51,11 +55,38 @@ public class Producer extends Container {
         throw new UnsupportedActionException();
     }
 
+    /**
+     * Returns the number of ticks this producer has had, which decides whether it produces on the
+     * next tick.
+     *
+     * @return the tick counter
+     */
+    public int getCounter() {
+        return counter;
+    }
+
+    /**
+     * Sets the number of ticks this producer has had. Used to restore a checkpoint of a
+     * simulation.
+     *
+     * @param counter the tick counter
+     */
+    public void setCounter(int counter) {
+        this.counter = counter;
+    }
+
     @Override
     public void tick() {
+        TransportMetrics metrics = getMetrics();
+        if (metrics != null) {
+            metrics.countTick();
+        }
         if (++counter % 2 == 1) {
             super.tick();
             super.setInventory(getKey());
+            if (metrics != null) {
+                metrics.produced();
+            }
         }
     }
 }
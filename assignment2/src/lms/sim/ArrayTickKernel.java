@@ -0,0 +1,264 @@
+package lms.sim;
+
+import lms.exceptions.BadStateException;
+import lms.logistics.Item;
+import lms.logistics.ItemRegistry;
+import lms.logistics.TickScheduler;
+import lms.logistics.Transport;
+import lms.logistics.belts.Belt;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+
+import java.util.BitSet;
+
+/**
+ * Ticks a grid over flat arrays instead of through its Transport objects.
+ * <p>
+ * Transports are identified by their position in the tick order of a {@link TickScheduler}. Each
+ * tick is one pass over primitive arrays: the item held by every transport, as an
+ * {@link ItemRegistry} id (0 for empty); the position of its successor; the key and counter of each
+ * producer and receiver; and bitsets marking which positions are producers and receivers. The
+ * result of every tick is exactly what {@link TickScheduler#tick()} would produce, including a
+ * BadStateException when a receiver is given the wrong item.
+ * <p>
+ * While the kernel is ticking, the arrays hold the true state and the Transport objects fall
+ * behind. Call {@link #sync()} before reading the objects (for example before painting or
+ * checkpointing), and {@link #reload()} after changing them. If the scheduler recompiles because
+ * the grid or its links have changed, the kernel syncs the old state back and reloads itself
+ * before its next tick.
+ *
+ * @ass2
+ */
+public class ArrayTickKernel implements DeferredStateEngine {
+
+    /**
+     * scheduler providing the tick order
+     */
+    private final TickScheduler scheduler;
+
+    /**
+     * compile count of the scheduler the arrays were built from
+     */
+    private int compiled;
+
+    /**
+     * transports, indexed by position in the tick order
+     */
+    private Transport[] transports;
+
+    /**
+     * id of the item held by each transport, or 0 if it is empty
+     */
+    private int[] items;
+
+    /**
+     * position of the successor of each transport, or -1 if it has none
+     */
+    private int[] successors;
+
+    /**
+     * id of the key of each producer and receiver, 0 elsewhere
+     */
+    private int[] keys;
+
+    /**
+     * tick counter of each producer, number of items received by each receiver, 0 elsewhere
+     */
+    private long[] counters;
+
+    /**
+     * positions of the producers
+     */
+    private BitSet producers;
+
+    /**
+     * positions of the receivers
+     */
+    private BitSet receivers;
+
+    /**
+     * true if the arrays have changed since they were last written back to the transports
+     */
+    private boolean dirty;
+
+    /**
+     * Creates a kernel ticking the transports of the given scheduler, reading their current state.
+     *
+     * @param scheduler the scheduler providing the tick order
+     * @throws IllegalArgumentException if scheduler is null, or if a transport is not a plain
+     *                                  Belt, Producer or Receiver, or outputs to a transport that
+     *                                  is not scheduled
+     */
+    public ArrayTickKernel(TickScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException();
+        }
+        this.scheduler = scheduler;
+        reload();
+    }
+
+    /**
+     * Rebuilds the arrays from the scheduler's current tick order and the current state of the
+     * transports, discarding any state not yet synced back.
+     *
+     * @throws IllegalArgumentException if a transport is not a plain Belt, Producer or Receiver,
+     *                                  or outputs to a transport that is not scheduled
+     */
+    @Override
+    public void reload() {
+        scheduler.compileIfStale();
+        int size = scheduler.size();
+        Transport[] transports = new Transport[size];
+        int[] items = new int[size];
+        int[] successors = new int[size];
+        int[] keys = new int[size];
+        long[] counters = new long[size];
+        BitSet producers = new BitSet(size);
+        BitSet receivers = new BitSet(size);
+
+        for (int i = 0; i < size; i++) {
+            Transport transport = scheduler.getTransport(i);
+            transports[i] = transport;
+            successors[i] = scheduler.getSuccessor(i);
+            if (successors[i] < 0 && transport.getOutput() != null) {
+                throw new IllegalArgumentException(transport + " outputs off the grid");
+            }
+            Item item = transport.peekInventory();
+            items[i] = item == null ? 0 : ItemRegistry.intern(item).getId();
+            if (transport.getClass() == Producer.class) {
+                Producer producer = (Producer) transport;
+                producers.set(i);
+                keys[i] = producer.getKey().getId();
+                counters[i] = producer.getCounter();
+            } else if (transport.getClass() == Receiver.class) {
+                Receiver receiver = (Receiver) transport;
+                receivers.set(i);
+                keys[i] = receiver.getKey().getId();
+                counters[i] = receiver.getReceivedCount();
+            } else if (transport.getClass() != Belt.class) {
+                throw new IllegalArgumentException("Cannot tick " + transport + " as an array");
+            }
+        }
+
+        this.transports = transports;
+        this.items = items;
+        this.successors = successors;
+        this.keys = keys;
+        this.counters = counters;
+        this.producers = producers;
+        this.receivers = receivers;
+        this.compiled = scheduler.getCompileCount();
+        this.dirty = false;
+    }
+
+    /**
+     * Writes the state held in the arrays back to the transports, if it has changed since it was
+     * last written.
+     */
+    @Override
+    public void sync() {
+        if (!dirty) {
+            return;
+        }
+        for (int i = 0; i < transports.length; i++) {
+            transports[i].restoreInventory(items[i] == 0 ? null : ItemRegistry.get(items[i]));
+        }
+        for (int i = producers.nextSetBit(0); i >= 0; i = producers.nextSetBit(i + 1)) {
+            ((Producer) transports[i]).setCounter((int) counters[i]);
+        }
+        for (int i = receivers.nextSetBit(0); i >= 0; i = receivers.nextSetBit(i + 1)) {
+            ((Receiver) transports[i]).setReceivedCount(counters[i]);
+        }
+        dirty = false;
+    }
+
+    /**
+     * Returns the number of transports the kernel ticks.
+     *
+     * @return the number of transports
+     */
+    public int size() {
+        return transports.length;
+    }
+
+    /**
+     * Advances every transport by one tick, in the scheduler's order.
+     *
+     * @throws BadStateException if a receiver is given the wrong item; the ticks of the transports
+     *                           before it in the order have already happened, as with
+     *                           {@link TickScheduler#tick()}
+     */
+    @Override
+    public void tick() {
+        if (scheduler.compileIfStale() || compiled != scheduler.getCompileCount()) {
+            sync();
+            reload();
+        }
+        dirty = true;
+        int[] items = this.items;
+        int[] successors = this.successors;
+        int i = 0;
+        while (i < items.length) {
+            // the belts up to the next producer or receiver need no checks but their own
+            int container = nextContainer(i);
+            for (; i < container; i++) {
+                int next = successors[i];
+                if (items[i] != 0 && next >= 0 && items[next] == 0) {
+                    items[next] = items[i];
+                    items[i] = 0;
+                }
+            }
+            if (i == items.length) {
+                break;
+            }
+            if (producers.get(i)) {
+                // produces on odd ticks: moves the last item on, then holds a new one
+                int counter = (int) counters[i] + 1; // an int, as in Producer
+                counters[i] = counter;
+                if (counter % 2 == 1) {
+                    move(items, successors, i);
+                    items[i] = keys[i];
+                }
+            } else {
+                if (items[i] != 0) {
+                    if (items[i] != keys[i]) {
+                        throw new BadStateException("Receiver inventory != key value");
+                    }
+                    counters[i]++;
+                }
+                items[i] = 0;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Returns the first producer or receiver at or after the given position.
+     *
+     * @param from position to search from
+     * @return the position of the container, or the number of transports if there is none
+     */
+    private int nextContainer(int from) {
+        int producer = producers.nextSetBit(from);
+        int receiver = receivers.nextSetBit(from);
+        if (producer < 0) {
+            return receiver < 0 ? items.length : receiver;
+        }
+        return receiver < 0 ? producer : Math.min(producer, receiver);
+    }
+
+    /**
+     * Moves the item at position i to its successor, if it has one and the successor is empty.
+     *
+     * @param items      item held by each transport
+     * @param successors successor of each transport
+     * @param i          position of the transport to move from
+     */
+    private static void move(int[] items, int[] successors, int i) {
+        int next = successors[i];
+        if (items[i] != 0 && next >= 0 && items[next] == 0) {
+            items[next] = items[i];
+            items[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package lms.sim;
+
+import lms.logistics.Transport;
+
+/**
+ * A run of consecutive belts along a chain that all hold an item, as found by a
+ * {@link BottleneckDetector}.
+ *
+ * @ass2
+ */
+public class BeltRun {
+
+    /**
+     * belt at the upstream end of the run
+     */
+    private final Transport first;
+
+    /**
+     * belt at the downstream end of the run
+     */
+    private final Transport last;
+
+    /**
+     * number of belts in the run
+     */
+    private final int length;
+
+    /**
+     * Creates a run of belts.
+     *
+     * @param first  belt at the upstream end of the run
+     * @param last   belt at the downstream end of the run
+     * @param length number of belts in the run
+     */
+    public BeltRun(Transport first, Transport last, int length) {
+        this.first = first;
+        this.last = last;
+        this.length = length;
+    }
+
+    /**
+     * Returns the belt at the upstream end of the run, furthest from the blockage.
+     *
+     * @return the first belt
+     */
+    public Transport getFirst() {
+        return first;
+    }
+
+    /**
+     * Returns the belt at the downstream end of the run, which is the one that cannot move its
+     * item on.
+     *
+     * @return the last belt
+     */
+    public Transport getLast() {
+        return last;
+    }
+
+    /**
+     * Returns the number of belts in the run.
+     *
+     * @return the length of the run
+     */
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s..%s (%d belts)", first, last, length);
+    }
+}
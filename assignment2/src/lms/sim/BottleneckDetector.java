@@ -0,0 +1,388 @@
+package lms.sim;
+
+import lms.logistics.InventoryListener;
+import lms.logistics.TickScheduler;
+import lms.logistics.Transport;
+import lms.logistics.belts.Belt;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+import lms.utility.Tickable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ticks a grid with a {@link TickScheduler} and, every few ticks, finds where its lines are
+ * backed up: runs of belts that are full and cannot move, producers that cannot emit, and
+ * receivers that have been given nothing.
+ * <p>
+ * A producer only emits every second tick, so on a line that flows freely no two neighbouring belts
+ * ever hold an item at the end of a tick. Neighbouring full belts, or a full belt whose output
+ * leads nowhere, therefore mean the line is backed up, and the longest such runs are where
+ * throughput is lost.
+ * <p>
+ * The detector listens for inventory changes on every transport (see
+ * {@link Transport#setInventoryListener}, replacing any listener already set) and only records
+ * which positions in the tick order changed while ticking. Every interval ticks it updates the runs
+ * from those positions alone, so an update costs time proportional to the number of transports
+ * that changed, plus one pass over a bitset of the receivers; queries look through every run. The
+ * tick order is read again, and everything rebuilt, only when the scheduler recompiles. A detector
+ * that is no longer needed should be {@link #detach() detached}, so that the transports stop
+ * holding on to it.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * BottleneckDetector detector = new BottleneckDetector(scheduler, 100);
+ * Simulator simulator = new Simulator(grid, detector);
+ * simulator.run(10_000);
+ * List<BeltRun> worst = detector.getBackedUpRuns(10);
+ * }</pre>
+ *
+ * @ass2
+ */
+public class BottleneckDetector implements Tickable {
+
+    /**
+     * scheduler ticking the grid
+     */
+    private final TickScheduler scheduler;
+
+    /**
+     * number of ticks between updates
+     */
+    private final int interval;
+
+    /**
+     * positions whose inventory changed since the last update, set by the listeners
+     */
+    private final BitSet changed = new BitSet();
+
+    /**
+     * compile count of the scheduler the positions were read from
+     */
+    private int compiled;
+
+    /**
+     * transports, indexed by position in the tick order
+     */
+    private Transport[] transports = new Transport[0];
+
+    /**
+     * listener set on each transport, indexed by position in the tick order
+     */
+    private InventoryListener[] listeners = new InventoryListener[0];
+
+    /**
+     * true once the detector has been detached
+     */
+    private boolean detached;
+
+    /**
+     * position of the successor of each transport, or -1 if it has none
+     */
+    private int[] successors;
+
+    /**
+     * positions of the belts
+     */
+    private BitSet belts;
+
+    /**
+     * positions of the producers
+     */
+    private BitSet producers;
+
+    /**
+     * positions of the receivers
+     */
+    private BitSet receivers;
+
+    /**
+     * positions of the belts that held an item at the last update
+     */
+    private BitSet full;
+
+    /**
+     * downstream end of every run of full belts
+     */
+    private BitSet runStarts;
+
+    /**
+     * upstream end of the run starting at each position in runStarts
+     */
+    private int[] runEnds;
+
+    /**
+     * positions of the receivers that were given nothing in the last interval
+     */
+    private BitSet starved;
+
+    /**
+     * ticks since the last update
+     */
+    private int sinceUpdate;
+
+    /**
+     * Creates a detector ticking the given scheduler and updating every interval ticks. The
+     * current state of the grid is read straight away.
+     *
+     * @param scheduler the scheduler ticking the grid
+     * @param interval  the number of ticks between updates
+     * @throws IllegalArgumentException if scheduler is null or interval &lt; 1
+     */
+    public BottleneckDetector(TickScheduler scheduler, int interval) {
+        if (scheduler == null || interval < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.scheduler = scheduler;
+        this.interval = interval;
+        rebuild();
+    }
+
+    /**
+     * Ticks the grid, updating the detector if interval ticks have passed since the last update.
+     *
+     * @throws lms.exceptions.BadStateException if a receiver is given the wrong item
+     */
+    @Override
+    public void tick() {
+        scheduler.tick();
+        if (++sinceUpdate >= interval) {
+            update();
+        }
+    }
+
+    /**
+     * Brings the runs, blocked producers and starved receivers up to date with the grid. Called
+     * every interval ticks by {@link #tick()}; receivers count as starved if nothing reached them
+     * since the previous update. Once the detector has been detached, nothing is updated.
+     */
+    public void update() {
+        sinceUpdate = 0;
+        if (detached) {
+            return;
+        }
+        if (scheduler.compileIfStale() || compiled != scheduler.getCompileCount()) {
+            rebuild();
+            return;
+        }
+        BitSet received = new BitSet(transports.length);
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            if (belts.get(i)) {
+                boolean occupied = transports[i].peekInventory() != null;
+                if (occupied != full.get(i)) {
+                    full.set(i, occupied);
+                    if (occupied) {
+                        fill(i);
+                    } else {
+                        empty(i);
+                    }
+                }
+            } else if (receivers.get(i)) {
+                received.set(i);
+            }
+        }
+        changed.clear();
+        starved = (BitSet) receivers.clone();
+        starved.andNot(received);
+    }
+
+    /**
+     * Reads the tick order and the state of every transport again, and starts listening to the
+     * transports in it. Nothing counts as starved until the next update.
+     */
+    private void rebuild() {
+        unregister();
+        scheduler.compileIfStale();
+        int size = scheduler.size();
+        transports = new Transport[size];
+        listeners = new InventoryListener[size];
+        successors = new int[size];
+        belts = new BitSet(size);
+        producers = new BitSet(size);
+        receivers = new BitSet(size);
+        full = new BitSet(size);
+        starved = new BitSet(size);
+        runStarts = new BitSet(size);
+        runEnds = new int[size];
+        changed.clear();
+        for (int i = 0; i < size; i++) {
+            Transport transport = scheduler.getTransport(i);
+            transports[i] = transport;
+            successors[i] = scheduler.getSuccessor(i);
+            if (transport instanceof Producer) {
+                producers.set(i);
+            } else if (transport instanceof Receiver) {
+                receivers.set(i);
+            } else if (transport instanceof Belt) {
+                belts.set(i);
+            }
+            int position = i;
+            listeners[i] = changedTransport -> changed.set(position);
+            transport.setInventoryListener(listeners[i]);
+        }
+        for (int i = belts.nextSetBit(0); i >= 0; i = belts.nextSetBit(i + 1)) {
+            if (transports[i].peekInventory() != null) {
+                full.set(i);
+                fill(i);
+            }
+        }
+        compiled = scheduler.getCompileCount();
+    }
+
+    /**
+     * Stops listening to the transports, so that a detector that is no longer needed is not kept
+     * reachable by the grid. Listeners set on the transports by anything else since are left in
+     * place. The results stay as they were at the last update, and ticking the detector only
+     * ticks the scheduler from now on.
+     */
+    public void detach() {
+        unregister();
+        changed.clear();
+        detached = true;
+    }
+
+    /**
+     * Removes the listeners this detector set on its transports, unless they have been replaced.
+     */
+    private void unregister() {
+        for (int i = 0; i < transports.length; i++) {
+            if (transports[i].getInventoryListener() == listeners[i]) {
+                transports[i].setInventoryListener(null);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the transport at position i outputs to the transport just before it in the
+     * tick order, so that both are in the same chain.
+     *
+     * @param i the upstream position
+     * @return true if i - 1 follows i along a chain
+     */
+    private boolean linked(int i) {
+        return i > 0 && successors[i] == i - 1;
+    }
+
+    /**
+     * Adds a newly full belt to the runs, joining it to the runs on either side of it.
+     *
+     * @param i position of the belt
+     */
+    private void fill(int i) {
+        int start = i;
+        int end = i;
+        if (linked(i) && full.get(i - 1)) {
+            start = runStarts.previousSetBit(i - 1);
+        }
+        if (i + 1 < transports.length && linked(i + 1) && full.get(i + 1)) {
+            end = runEnds[i + 1];
+            runStarts.clear(i + 1);
+        }
+        runStarts.set(start);
+        runEnds[start] = end;
+    }
+
+    /**
+     * Removes a newly empty belt from its run, splitting the run in two around it.
+     *
+     * @param i position of the belt
+     */
+    private void empty(int i) {
+        int start = runStarts.previousSetBit(i);
+        int end = runEnds[start];
+        if (start < i) {
+            runEnds[start] = i - 1;
+        } else {
+            runStarts.clear(start);
+        }
+        if (i < end) {
+            runStarts.set(i + 1);
+            runEnds[i + 1] = end;
+        }
+    }
+
+    /**
+     * Returns true if the run with the given ends is backed up: it has at least two belts, or its
+     * downstream end leads nowhere.
+     *
+     * @param start position of the downstream end of the run
+     * @param end   position of the upstream end of the run
+     * @return true if the run cannot be flowing freely
+     */
+    private boolean backedUp(int start, int end) {
+        return end > start || successors[start] < 0;
+    }
+
+    /**
+     * Returns the longest runs of full belts that are backed up, as of the last update, longest
+     * first.
+     *
+     * @param limit the most runs to return
+     * @return up to limit runs, longest first
+     * @throws IllegalArgumentException if limit &lt; 0
+     */
+    public List<BeltRun> getBackedUpRuns(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException();
+        }
+        // the shortest of the longest runs so far is at the head, ready to be replaced
+        PriorityQueue<BeltRun> longest = new PriorityQueue<>(
+                Comparator.comparingInt(BeltRun::getLength));
+        for (int start = runStarts.nextSetBit(0); start >= 0 && limit > 0;
+                start = runStarts.nextSetBit(start + 1)) {
+            int end = runEnds[start];
+            int length = end - start + 1;
+            if (!backedUp(start, end)
+                    || (longest.size() == limit && longest.peek().getLength() >= length)) {
+                continue;
+            }
+            if (longest.size() == limit) {
+                longest.poll();
+            }
+            longest.add(new BeltRun(transports[end], transports[start], length));
+        }
+        List<BeltRun> result = new ArrayList<>(longest);
+        result.sort(Comparator.comparingInt(BeltRun::getLength).reversed());
+        return result;
+    }
+
+    /**
+     * Returns the producers that cannot emit, as of the last update: those with no output, and
+     * those whose output is a belt in a backed-up run.
+     *
+     * @return the blocked producers, in tick order
+     */
+    public List<Producer> getBlockedProducers() {
+        List<Producer> result = new ArrayList<>();
+        for (int i = producers.nextSetBit(0); i >= 0; i = producers.nextSetBit(i + 1)) {
+            int next = successors[i];
+            boolean blocked = next < 0 && transports[i].getOutput() == null;
+            if (next >= 0 && full.get(next)) {
+                int start = runStarts.previousSetBit(next);
+                blocked = backedUp(start, runEnds[start]);
+            }
+            if (blocked) {
+                result.add((Producer) transports[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the receivers that were given nothing between the last two updates. Before the
+     * first update after the tick order is read, no receiver counts as starved.
+     *
+     * @return the starved receivers, in tick order
+     */
+    public List<Receiver> getStarvedReceivers() {
+        List<Receiver> result = new ArrayList<>();
+        for (int i = starved.nextSetBit(0); i >= 0; i = starved.nextSetBit(i + 1)) {
+            result.add((Receiver) transports[i]);
+        }
+        return result;
+    }
+}
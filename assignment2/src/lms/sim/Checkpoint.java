@@ -0,0 +1,295 @@
+package lms.sim;
+
+import lms.exceptions.FileFormatException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The tick state of the transports on a grid at one tick, as captured by a {@link Checkpointer}.
+ * <p>
+ * A full checkpoint holds the state of every transport. A delta checkpoint only holds the
+ * transports whose state changed since the checkpoint before it, so a long simulation can be saved
+ * often at a cost proportional to its activity. A full checkpoint followed by the deltas taken
+ * after it, in order, restores the state at the last of them.
+ * <p>
+ * The state of a transport is the item it holds and a counter: the tick counter of a producer, the
+ * number of items received by a receiver, or 0 for a belt. Transports are identified by their
+ * position among the transports of the grid in storage order, and items by their key.
+ *
+ * @ass2
+ */
+public final class Checkpoint {
+
+    /**
+     * first four bytes of a written checkpoint: "LMSC" in ASCII
+     */
+    private static final int MAGIC = 0x4C4D5343;
+
+    /**
+     * version of the written format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * tick the state was captured at
+     */
+    private final long tick;
+
+    /**
+     * true if every transport is included
+     */
+    private final boolean full;
+
+    /**
+     * number of transports on the grid the state was captured from
+     */
+    private final int transportCount;
+
+    /**
+     * keys of the items held, referred to by items
+     */
+    private final String[] keys;
+
+    /**
+     * position of each included transport, in increasing order
+     */
+    private final int[] indices;
+
+    /**
+     * index in keys of the item held by each included transport, or -1 if it is empty
+     */
+    private final int[] items;
+
+    /**
+     * counter of each included transport
+     */
+    private final long[] counters;
+
+    /**
+     * Creates a checkpoint. The arrays are used as they are, not copied.
+     *
+     * @param tick           tick the state was captured at
+     * @param full           true if every transport is included
+     * @param transportCount number of transports on the grid
+     * @param keys           keys of the items held
+     * @param indices        position of each included transport, in increasing order
+     * @param items          index in keys of the item held by each included transport, or -1
+     * @param counters       counter of each included transport
+     */
+    Checkpoint(long tick, boolean full, int transportCount, String[] keys,
+               int[] indices, int[] items, long[] counters) {
+        this.tick = tick;
+        this.full = full;
+        this.transportCount = transportCount;
+        this.keys = keys;
+        this.indices = indices;
+        this.items = items;
+        this.counters = counters;
+    }
+
+    /**
+     * Returns the tick the state was captured at.
+     *
+     * @return the tick number
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns true if this checkpoint holds the state of every transport, so it can be restored on
+     * its own.
+     *
+     * @return true for a full checkpoint, false for a delta
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Returns the number of transports on the grid the state was captured from.
+     *
+     * @return the transport count
+     */
+    public int getTransportCount() {
+        return transportCount;
+    }
+
+    /**
+     * Returns the number of transports whose state this checkpoint holds.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * Returns the position among the grid's transports of the given entry.
+     *
+     * @param entry index of the entry, from 0 to size() - 1
+     * @return the position of the transport
+     */
+    int indexAt(int entry) {
+        return indices[entry];
+    }
+
+    /**
+     * Returns the key of the item held by the given entry.
+     *
+     * @param entry index of the entry, from 0 to size() - 1
+     * @return the key, or null if the transport was empty
+     */
+    String keyAt(int entry) {
+        return items[entry] < 0 ? null : keys[items[entry]];
+    }
+
+    /**
+     * Returns the counter of the given entry.
+     *
+     * @param entry index of the entry, from 0 to size() - 1
+     * @return the counter
+     */
+    long counterAt(int entry) {
+        return counters[entry];
+    }
+
+    /**
+     * Writes this checkpoint to the given stream. Positions are written as gaps from the previous
+     * entry and all numbers as variable-length integers, so a delta of a few scattered transports
+     * takes a few bytes each. The stream is flushed but not closed.
+     *
+     * @param out the stream to write to
+     * @throws IOException              if there is an error writing to the stream
+     * @throws IllegalArgumentException if out is null
+     */
+    public void write(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException();
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(tick);
+        data.writeBoolean(full);
+        writeVarLong(data, transportCount);
+        writeVarLong(data, keys.length);
+        for (String key : keys) {
+            data.writeUTF(key);
+        }
+        writeVarLong(data, indices.length);
+        int previous = -1;
+        for (int i = 0; i < indices.length; i++) {
+            writeVarLong(data, indices[i] - previous);
+            writeVarLong(data, items[i] + 1);
+            writeVarLong(data, counters[i]);
+            previous = indices[i];
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a checkpoint written by {@link #write(OutputStream)}.
+     *
+     * @param in the stream to read from
+     * @return the checkpoint read
+     * @throws IOException              if there is an error reading from the stream
+     * @throws FileFormatException      if the stream does not hold a valid checkpoint
+     * @throws IllegalArgumentException if in is null
+     */
+    public static Checkpoint read(InputStream in) throws IOException, FileFormatException {
+        if (in == null) {
+            throw new IllegalArgumentException();
+        }
+        DataInputStream data = new DataInputStream(in);
+        try {
+            if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+                throw new FileFormatException("Not a version " + VERSION + " checkpoint");
+            }
+            long tick = data.readLong();
+            boolean full = data.readBoolean();
+            int transportCount = readCount(data, Integer.MAX_VALUE);
+            String[] keys = new String[readCount(data, transportCount)];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = data.readUTF();
+            }
+            int size = readCount(data, transportCount);
+            int[] indices = new int[size];
+            int[] items = new int[size];
+            long[] counters = new long[size];
+            int previous = -1;
+            for (int i = 0; i < size; i++) {
+                indices[i] = previous + readCount(data, transportCount - previous - 1);
+                items[i] = readCount(data, keys.length) - 1;
+                counters[i] = readVarLong(data);
+                if (indices[i] == previous) {
+                    throw new FileFormatException("Checkpoint entries are out of order");
+                }
+                previous = indices[i];
+            }
+            return new Checkpoint(tick, full, transportCount, keys, indices, items, counters);
+        } catch (EOFException e) {
+            throw new FileFormatException("Checkpoint ends unexpectedly", e);
+        }
+    }
+
+    /**
+     * Writes a non-negative number in seven-bit groups, low group first, with the top bit of each
+     * byte set if another byte follows.
+     *
+     * @param out   stream to write to
+     * @param value number to write
+     * @throws IOException if there is an error writing to the stream
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a number written by {@link #writeVarLong(DataOutputStream, long)}.
+     *
+     * @param in stream to read from
+     * @return the number read
+     * @throws IOException         if there is an error reading from the stream
+     * @throws FileFormatException if the number is longer than a long
+     */
+    private static long readVarLong(DataInputStream in) throws IOException, FileFormatException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new FileFormatException("Checkpoint number is too long");
+    }
+
+    /**
+     * Reads a count and checks it against an upper bound, so that a corrupt count cannot allocate
+     * more memory than the checkpoint could describe.
+     *
+     * @param in    stream to read from
+     * @param limit the most the count can be
+     * @return the count
+     * @throws IOException         if there is an error reading from the stream
+     * @throws FileFormatException if the count is negative or greater than limit
+     */
+    private static int readCount(DataInputStream in, int limit)
+            throws IOException, FileFormatException {
+        long count = readVarLong(in);
+        if (count < 0 || count > limit) {
+            throw new FileFormatException("Invalid count " + count + " in checkpoint");
+        }
+        return (int) count;
+    }
+}
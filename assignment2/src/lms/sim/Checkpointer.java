@@ -0,0 +1,232 @@
+package lms.sim;
+
+import lms.grid.GameGrid;
+import lms.logistics.Item;
+import lms.logistics.ItemRegistry;
+import lms.logistics.Transport;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Captures and restores the tick state of the transports on a grid as {@link Checkpoint}s.
+ * <p>
+ * The checkpointer remembers the state it last captured or restored, so that each call to
+ * {@link #capture(long)} after the first only records the transports that have changed since. The
+ * first capture, and the first capture after a cell of the grid has been replaced, is full.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * Checkpointer checkpointer = new Checkpointer(grid);
+ * List<Checkpoint> saved = new ArrayList<>();
+ * saved.add(checkpointer.capture(0));       // full
+ * ...
+ * saved.add(checkpointer.capture(ticks));   // only what changed
+ * ...
+ * long tick = checkpointer.restore(saved);  // back to the last capture
+ * }</pre>
+ *
+ * @ass2
+ */
+public class Checkpointer {
+
+    /**
+     * grid whose state is captured
+     */
+    private final GameGrid grid;
+
+    /**
+     * transports on the grid, in storage order
+     */
+    private Transport[] transports;
+
+    /**
+     * grid modification count transports was collected at
+     */
+    private int gridVersion;
+
+    /**
+     * item held by each transport at the last capture or restore, or null if none yet
+     */
+    private Item[] lastItems;
+
+    /**
+     * counter of each transport at the last capture or restore
+     */
+    private long[] lastCounters;
+
+    /**
+     * Creates a checkpointer for the given grid.
+     *
+     * @param grid the grid to capture
+     * @throws IllegalArgumentException if grid is null
+     */
+    public Checkpointer(GameGrid grid) {
+        if (grid == null) {
+            throw new IllegalArgumentException();
+        }
+        this.grid = grid;
+        this.gridVersion = grid.getModificationCount() - 1;
+    }
+
+    /**
+     * Collects the transports of the grid again if a cell has been replaced since they were last
+     * collected, forgetting the last captured state.
+     */
+    private void refresh() {
+        if (gridVersion != grid.getModificationCount()) {
+            transports = grid.transports().toArray(Transport[]::new);
+            gridVersion = grid.getModificationCount();
+            lastItems = null;
+            lastCounters = null;
+        }
+    }
+
+    /**
+     * Captures the state of the grid at the given tick. The checkpoint is full if nothing has been
+     * captured or restored since the cells of the grid last changed, and a delta from the last
+     * capture or restore otherwise.
+     *
+     * @param tick the current tick number
+     * @return the captured checkpoint
+     */
+    public Checkpoint capture(long tick) {
+        refresh();
+        return capture(tick, lastItems == null);
+    }
+
+    /**
+     * Captures the state of every transport on the grid at the given tick.
+     *
+     * @param tick the current tick number
+     * @return the captured checkpoint
+     */
+    public Checkpoint captureFull(long tick) {
+        refresh();
+        return capture(tick, true);
+    }
+
+    /**
+     * Captures the state of the transports that have changed since the last capture, or of every
+     * transport if full is true, and remembers it as the last captured state.
+     *
+     * @param tick the current tick number
+     * @param full true to include every transport
+     * @return the captured checkpoint
+     */
+    private Checkpoint capture(long tick, boolean full) {
+        int count = transports.length;
+        if (lastItems == null) {
+            lastItems = new Item[count];
+            lastCounters = new long[count];
+        }
+        int[] indices = new int[count];
+        int[] items = new int[count];
+        long[] counters = new long[count];
+        Map<Item, Integer> keys = new HashMap<>();
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            Transport transport = transports[i];
+            Item item = transport.peekInventory();
+            long counter = counterOf(transport);
+            if (full || item != lastItems[i] || counter != lastCounters[i]) {
+                indices[size] = i;
+                items[size] = item == null ? -1
+                        : keys.computeIfAbsent(item, key -> keys.size());
+                counters[size] = counter;
+                size++;
+                lastItems[i] = item;
+                lastCounters[i] = counter;
+            }
+        }
+
+        String[] names = new String[keys.size()];
+        keys.forEach((item, index) -> names[index] = item.toString());
+        return new Checkpoint(tick, full, count, names, trim(indices, size), trim(items, size),
+                Arrays.copyOf(counters, size));
+    }
+
+    /**
+     * Restores the state captured by a full checkpoint followed by the deltas taken after it, and
+     * remembers it as the last captured state. Restoring costs time proportional to the number of
+     * cells plus the size of the checkpoints.
+     * <p>
+     * Items are restored as the canonical items of their keys (see {@link ItemRegistry}).
+     *
+     * @param checkpoints a full checkpoint followed by zero or more deltas, in the order they were
+     *                    captured
+     * @return the tick of the last checkpoint
+     * @throws IllegalArgumentException if checkpoints is null or empty, if the first checkpoint is
+     *                                  not full, if the checkpoints are not in tick order, or if
+     *                                  they do not match the transports on the grid
+     */
+    public long restore(List<Checkpoint> checkpoints) {
+        if (checkpoints == null || checkpoints.isEmpty() || !checkpoints.get(0).isFull()) {
+            throw new IllegalArgumentException("Checkpoints must start with a full checkpoint");
+        }
+        refresh();
+
+        // check everything before changing anything, so a bad list leaves the grid alone
+        long tick = Long.MIN_VALUE;
+        for (Checkpoint checkpoint : checkpoints) {
+            if (checkpoint.getTransportCount() != transports.length
+                    || checkpoint.getTick() < tick) {
+                throw new IllegalArgumentException("Checkpoint does not follow on for this grid");
+            }
+            tick = checkpoint.getTick();
+        }
+
+        Item[] restoredItems = new Item[transports.length];
+        long[] restoredCounters = new long[transports.length];
+        for (Checkpoint checkpoint : checkpoints) {
+            for (int entry = 0; entry < checkpoint.size(); entry++) {
+                int index = checkpoint.indexAt(entry);
+                String key = checkpoint.keyAt(entry);
+                restoredItems[index] = key == null ? null : ItemRegistry.intern(key);
+                restoredCounters[index] = checkpoint.counterAt(entry);
+            }
+        }
+        for (int i = 0; i < transports.length; i++) {
+            Transport transport = transports[i];
+            transport.restoreInventory(restoredItems[i]);
+            if (transport instanceof Producer producer) {
+                producer.setCounter((int) restoredCounters[i]);
+            } else if (transport instanceof Receiver receiver) {
+                receiver.setReceivedCount(restoredCounters[i]);
+            }
+        }
+        lastItems = restoredItems;
+        lastCounters = restoredCounters;
+        return tick;
+    }
+
+    /**
+     * Returns the counter saved for a transport.
+     *
+     * @param transport the transport
+     * @return the tick counter of a producer, the received count of a receiver, otherwise 0
+     */
+    private static long counterOf(Transport transport) {
+        if (transport instanceof Producer producer) {
+            return producer.getCounter();
+        } else if (transport instanceof Receiver receiver) {
+            return receiver.getReceivedCount();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the first size elements of an array, without copying if that is all of it.
+     *
+     * @param array the array to trim
+     * @param size  the number of elements to keep
+     * @return an array of length size
+     */
+    private static int[] trim(int[] array, int size) {
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+}
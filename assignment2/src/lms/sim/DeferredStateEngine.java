@@ -0,0 +1,24 @@
+package lms.sim;
+
+import lms.utility.Tickable;
+
+/**
+ * An engine that, for speed, keeps part of the tick state of a grid to itself between ticks, so
+ * that the transports on the grid can fall behind it. The {@link Simulator} syncs such an engine
+ * before it reads the transports and reloads it after it changes them.
+ *
+ * @ass2
+ */
+interface DeferredStateEngine extends Tickable {
+
+    /**
+     * Writes the state the engine holds back to the transports, so that they are up to date.
+     */
+    void sync();
+
+    /**
+     * Discards the state the engine holds and reads it again from the transports, after they have
+     * been changed from outside the engine.
+     */
+    void reload();
+}
@@ -0,0 +1,321 @@
+package lms.sim;
+
+import lms.logistics.Path;
+import lms.logistics.TickScheduler;
+import lms.logistics.Transport;
+import lms.utility.Tickable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ticks the independent parts of a grid in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * A transport only ever reads and writes its own inventory and the inventory of the transport its
+ * path leads to, so chains that share no link cannot affect each other within a tick. The chains
+ * of a {@link TickScheduler} are grouped into connected components (chains joined by any link,
+ * in either direction, end up in the same component), and each component keeps the sequential
+ * order of its chains. Components are then packed into batches of roughly equal size, and every
+ * tick runs all batches on the pool and waits for them to finish before returning, so each tick is
+ * a barrier and the result is the same as ticking the scheduler sequentially.
+ * <p>
+ * The components are only recomputed when the scheduler recompiles its tick order. If a receiver
+ * is given the wrong item, the batch it is in stops, and the BadStateException is rethrown once
+ * every other batch has finished its tick. If several batches fail, the first failure recorded is
+ * rethrown.
+ *
+ * @ass2
+ */
+public class ParallelTickEngine implements Tickable {
+
+    /**
+     * default smallest number of transports worth handing to a separate task
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * scheduler providing the sequential tick order
+     */
+    private final TickScheduler scheduler;
+
+    /**
+     * pool the batches are ticked on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * smallest number of transports in a batch, other than the last
+     */
+    private final int batchSize;
+
+    /**
+     * first exception thrown by a batch during the current tick, or null
+     */
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    /**
+     * chains of every batch, batch after batch, in sequential order within each component
+     */
+    private int[] batchChains;
+
+    /**
+     * index in batchChains of the first chain of each batch, followed by batchChains.length
+     */
+    private int[] batchStart;
+
+    /**
+     * compile count of the scheduler the batches were built from
+     */
+    private int partitioned;
+
+    /**
+     * Creates an engine that ticks the chains of the given scheduler on the common pool.
+     *
+     * @param scheduler the scheduler providing the tick order
+     * @throws IllegalArgumentException if scheduler is null
+     */
+    public ParallelTickEngine(TickScheduler scheduler) {
+        this(scheduler, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine that ticks the chains of the given scheduler on the given pool.
+     *
+     * @param scheduler the scheduler providing the tick order
+     * @param pool      the pool to tick on
+     * @throws IllegalArgumentException if scheduler or pool is null
+     */
+    public ParallelTickEngine(TickScheduler scheduler, ForkJoinPool pool) {
+        this(scheduler, pool, BATCH_SIZE);
+    }
+
+    /**
+     * Creates an engine that ticks the chains of the given scheduler on the given pool, packing
+     * components into batches of at least batchSize transports.
+     *
+     * @param scheduler the scheduler providing the tick order
+     * @param pool      the pool to tick on
+     * @param batchSize the smallest number of transports in a batch, other than the last
+     * @throws IllegalArgumentException if scheduler or pool is null, or batchSize &lt; 1
+     */
+    public ParallelTickEngine(TickScheduler scheduler, ForkJoinPool pool, int batchSize) {
+        if (scheduler == null || pool == null || batchSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.scheduler = scheduler;
+        this.pool = pool;
+        this.batchSize = batchSize;
+        partition();
+    }
+
+    /**
+     * Returns the number of batches each tick is split into.
+     *
+     * @return the number of batches
+     */
+    public int getBatchCount() {
+        return batchStart.length - 1;
+    }
+
+    /**
+     * Groups the chains of the scheduler into connected components, then packs the components
+     * into batches of at least batchSize transports.
+     */
+    private void partition() {
+        partitioned = scheduler.getCompileCount();
+        int chains = scheduler.getChainCount();
+
+        int[] chainOf = new int[scheduler.size()];
+        for (int chain = 0; chain < chains; chain++) {
+            for (int i = scheduler.getChainStart(chain); i < scheduler.getChainStart(chain + 1);
+                    i++) {
+                chainOf[i] = chain;
+            }
+        }
+
+        int[] parent = new int[chains];
+        for (int chain = 0; chain < chains; chain++) {
+            parent[chain] = chain;
+        }
+        for (int i = 0; i < scheduler.size(); i++) {
+            Transport transport = scheduler.getTransport(i);
+            union(parent, chainOf[i], chainOfLink(transport.getInput(), chainOf));
+            union(parent, chainOf[i], chainOfLink(transport.getOutput(), chainOf));
+        }
+
+        // chains of each component, in increasing (sequential) order
+        List<List<Integer>> components = new ArrayList<>();
+        int[] componentOf = new int[chains];
+        for (int chain = 0; chain < chains; chain++) {
+            int root = find(parent, chain);
+            if (root == chain) {
+                componentOf[chain] = components.size();
+                components.add(new ArrayList<>());
+            }
+            components.get(componentOf[root]).add(chain);
+        }
+
+        batchChains = new int[chains];
+        List<Integer> starts = new ArrayList<>();
+        int filled = 0;
+        int weight = batchSize;
+        for (List<Integer> component : components) {
+            if (weight >= batchSize) {
+                starts.add(filled);
+                weight = 0;
+            }
+            for (int chain : component) {
+                batchChains[filled++] = chain;
+                weight += scheduler.getChainStart(chain + 1) - scheduler.getChainStart(chain);
+            }
+        }
+        batchStart = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            batchStart[i] = starts.get(i);
+        }
+        batchStart[starts.size()] = filled;
+    }
+
+    /**
+     * Returns the chain of the transport at the other end of a link.
+     *
+     * @param link    the link to follow, may be null
+     * @param chainOf chain of each position in the tick order
+     * @return the chain of the linked transport, or -1 if there is none
+     */
+    private int chainOfLink(Path link, int[] chainOf) {
+        if (link == null) {
+            return -1;
+        }
+        int position = scheduler.indexOf(link.getNode());
+        return position < 0 ? -1 : chainOf[position];
+    }
+
+    /**
+     * Merges the components of two chains.
+     *
+     * @param parent union-find forest over chains
+     * @param first  first chain
+     * @param second second chain, or -1 to do nothing
+     */
+    private static void union(int[] parent, int first, int second) {
+        if (second < 0) {
+            return;
+        }
+        int rootFirst = find(parent, first);
+        int rootSecond = find(parent, second);
+        // keep the smallest chain as the root, so components are discovered in chain order
+        if (rootFirst < rootSecond) {
+            parent[rootSecond] = rootFirst;
+        } else if (rootSecond < rootFirst) {
+            parent[rootFirst] = rootSecond;
+        }
+    }
+
+    /**
+     * Finds the root of the component of a chain, halving the path on the way.
+     *
+     * @param parent union-find forest over chains
+     * @param chain  chain to look up
+     * @return the root chain of its component
+     */
+    private static int find(int[] parent, int chain) {
+        while (parent[chain] != chain) {
+            parent[chain] = parent[parent[chain]];
+            chain = parent[chain];
+        }
+        return chain;
+    }
+
+    /**
+     * Recompiles the tick order if it is stale, then ticks every batch in parallel and waits for
+     * all of them to finish.
+     *
+     * @throws lms.exceptions.BadStateException if a receiver is given the wrong item; every other
+     *                                          batch has finished its tick
+     */
+    @Override
+    public void tick() {
+        scheduler.compileIfStale();
+        if (partitioned != scheduler.getCompileCount()) {
+            partition();
+        }
+        if (getBatchCount() <= 1) {
+            tickBatches(0, getBatchCount());
+        } else {
+            pool.invoke(new BatchTask(0, getBatchCount()));
+            RuntimeException thrown = failure.getAndSet(null);
+            if (thrown != null) {
+                throw thrown;
+            }
+        }
+    }
+
+    /**
+     * Ticks the chains of the given batches on the calling thread.
+     *
+     * @param from first batch (inclusive)
+     * @param to   last batch (exclusive)
+     */
+    private void tickBatches(int from, int to) {
+        for (int i = batchStart[from]; i < batchStart[to]; i++) {
+            scheduler.tickChain(batchChains[i]);
+        }
+    }
+
+    /**
+     * Task ticking a range of batches. Every batch but the first is forked, the first is ticked
+     * on the current thread, and then every forked batch is joined. A batch that throws records
+     * its exception in failure instead, so the task only completes once every batch has finished.
+     */
+    private class BatchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * first batch (inclusive)
+         */
+        private final int from;
+
+        /**
+         * last batch (exclusive)
+         */
+        private final int to;
+
+        /**
+         * Creates a task for the given range of batches.
+         *
+         * @param from first batch (inclusive)
+         * @param to   last batch (exclusive)
+         */
+        BatchTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    tickBatches(from, to);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+                return;
+            }
+            List<BatchTask> forked = new ArrayList<>(to - from - 1);
+            for (int batch = from + 1; batch < to; batch++) {
+                BatchTask task = new BatchTask(batch, batch + 1);
+                task.fork();
+                forked.add(task);
+            }
+            new BatchTask(from, from + 1).compute();
+            for (BatchTask task : forked) {
+                task.join();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package lms.sim;
+
+/**
+ * The outcome of running a {@link Simulator} for a number of ticks: how many ticks were run, how
+ * long they took and how many items the receivers consumed while they ran.
+ *
+ * @ass2
+ */
+public class SimulationResult {
+
+    /**
+     * number of ticks that were run
+     */
+    private final long ticks;
+
+    /**
+     * wall clock time taken by the ticks, in nanoseconds
+     */
+    private final long elapsedNanos;
+
+    /**
+     * number of items consumed by receivers during the run
+     */
+    private final long delivered;
+
+    /**
+     * Creates a result for a finished run.
+     *
+     * @param ticks        number of ticks that were run
+     * @param elapsedNanos wall clock time taken by the ticks, in nanoseconds
+     * @param delivered    number of items consumed by receivers during the run
+     */
+    public SimulationResult(long ticks, long elapsedNanos, long delivered) {
+        this.ticks = ticks;
+        this.elapsedNanos = elapsedNanos;
+        this.delivered = delivered;
+    }
+
+    /**
+     * Returns the number of ticks that were run.
+     *
+     * @return the number of ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the wall clock time taken by the run.
+     *
+     * @return the elapsed time, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of items consumed by receivers during the run.
+     *
+     * @return the number of items delivered
+     */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Returns the average simulation speed of the run.
+     *
+     * @return ticks per second, or 0 if no time elapsed
+     */
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d ticks in %.3f s (%.0f ticks/s), %d items delivered",
+                ticks, elapsedNanos / 1e9, getTicksPerSecond(), delivered);
+    }
+}
@@ -0,0 +1,480 @@
+package lms.sim;
+
+import lms.exceptions.FileFormatException;
+import lms.exceptions.UnsupportedActionException;
+import lms.grid.GameGrid;
+import lms.io.BinarySave;
+import lms.io.GameLoader;
+import lms.io.LoadedGame;
+import lms.io.SaveConverter;
+import lms.logistics.Item;
+import lms.logistics.ItemRegistry;
+import lms.logistics.TickScheduler;
+import lms.logistics.Transport;
+import lms.logistics.TransportMetrics;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+import lms.utility.Logger;
+import lms.utility.Tickable;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Runs a factory simulation without a GUI. Unlike the Swing Timer in
+ * {@link lms.gui.Controller}, which ticks once a second on the event dispatch thread, a Simulator
+ * ticks on the calling thread as fast as the engine allows, which makes it suitable for evaluating
+ * layouts in batch.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * Simulator simulator = Simulator.load("saves/grid3.txt");
+ * SimulationResult result = simulator.run(1_000_000);
+ * }</pre>
+ *
+ * @ass2
+ */
+public class Simulator {
+
+    /**
+     * Logger for command line errors
+     */
+    private static final Logger LOG = Logger.getLogger(Simulator.class);
+
+    /**
+     * engines that can be chosen on the command line
+     */
+    private static final List<String> ENGINES = List.of("parallel", "kernel", "sparse");
+
+    /**
+     * most state hashes kept while looking for a cycle before starting again
+     */
+    private static final int MAX_STATES = 1 << 20;
+
+    /**
+     * grid being simulated
+     */
+    private final GameGrid grid;
+
+    /**
+     * engine used to advance the grid by one tick
+     */
+    private final Tickable engine;
+
+    /**
+     * number of ticks run so far
+     */
+    private long ticks;
+
+    /**
+     * captures and restores the state of the grid, created on first use
+     */
+    private Checkpointer checkpointer;
+
+    /**
+     * receivers on the grid, looked up again whenever the grid changes
+     */
+    private List<Receiver> receivers;
+
+    /**
+     * grid modification count receivers was looked up against
+     */
+    private int receiversVersion;
+
+    /**
+     * Creates a simulator for the given grid, ticking it with a {@link TickScheduler}.
+     *
+     * @param grid the grid to simulate
+     * @throws IllegalArgumentException if grid is null
+     */
+    public Simulator(GameGrid grid) {
+        this(grid, grid == null ? null : new TickScheduler(grid));
+    }
+
+    /**
+     * Creates a simulator for the given grid, ticking it with the given engine.
+     *
+     * @param grid   the grid to simulate
+     * @param engine the engine that advances every transport on grid by one tick
+     * @throws IllegalArgumentException if grid or engine is null
+     */
+    public Simulator(GameGrid grid, Tickable engine) {
+        if (grid == null || engine == null) {
+            throw new IllegalArgumentException();
+        }
+        this.grid = grid;
+        this.engine = engine;
+        this.ticks = 0;
+        this.receiversVersion = grid.getModificationCount() - 1;
+    }
+
+    /**
+     * Loads a save file with {@link GameLoader#loadGame(Reader)}, or with
+     * {@link BinarySave#load(java.nio.file.Path)} if it is a binary save, and creates a simulator
+     * for it, ticking it with the scheduler compiled while loading.
+     *
+     * @param save path of the save file to load
+     * @return a simulator for the loaded grid
+     * @throws IOException         if there is an error reading the save file
+     * @throws FileFormatException if the save file is not in the correct format
+     */
+    public static Simulator load(String save) throws IOException, FileFormatException {
+        LoadedGame game = loadGame(save);
+        return new Simulator(game.getGrid(), game.getScheduler());
+    }
+
+    /**
+     * Loads a save file as {@link #load(String)} does, returning the grid and its compiled
+     * scheduler.
+     *
+     * @param save path of the save file to load
+     * @return the loaded grid and scheduler
+     * @throws IOException         if there is an error reading the save file
+     * @throws FileFormatException if the save file is not in the correct format
+     */
+    private static LoadedGame loadGame(String save) throws IOException, FileFormatException {
+        java.nio.file.Path file = java.nio.file.Path.of(save);
+        if (SaveConverter.isBinary(file)) {
+            return BinarySave.load(file);
+        }
+        try (Reader reader = new FileReader(save)) {
+            return GameLoader.loadGame(reader);
+        }
+    }
+
+    /**
+     * Returns the grid being simulated. If the simulator ticks with an {@link ArrayTickKernel} or
+     * a {@link SparseTickEngine}, the state of the transports is only brought up to date by the
+     * methods of this class that read it (such as {@link #getDelivered()}); call the engine's
+     * sync() before reading the grid directly.
+     *
+     * @return the simulated grid
+     */
+    public GameGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the number of ticks this simulator has run.
+     *
+     * @return the tick count
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the total number of items consumed by the receivers on the grid.
+     *
+     * @return the number of items delivered
+     */
+    public long getDelivered() {
+        syncEngine();
+        if (receiversVersion != grid.getModificationCount()) {
+            receivers = grid.transports()
+                    .filter(Receiver.class::isInstance)
+                    .map(Receiver.class::cast)
+                    .toList();
+            receiversVersion = grid.getModificationCount();
+        }
+        long delivered = 0;
+        for (Receiver receiver : receivers) {
+            delivered += receiver.getReceivedCount();
+        }
+        return delivered;
+    }
+
+    /**
+     * Captures the state of the simulation at the current tick. The first checkpoint is full;
+     * later ones only hold what changed since the previous checkpoint (see {@link Checkpointer}).
+     *
+     * @return the captured checkpoint
+     */
+    public Checkpoint checkpoint() {
+        if (checkpointer == null) {
+            checkpointer = new Checkpointer(grid);
+        }
+        syncEngine();
+        return checkpointer.capture(ticks);
+    }
+
+    /**
+     * Restores the simulation to the state of the last of the given checkpoints, including its
+     * tick count, so that it resumes from there.
+     *
+     * @param checkpoints a full checkpoint followed by zero or more deltas, in the order they were
+     *                    captured
+     * @throws IllegalArgumentException if the checkpoints cannot be restored on this grid (see
+     *                                  {@link Checkpointer#restore(List)})
+     */
+    public void restore(List<Checkpoint> checkpoints) {
+        if (checkpointer == null) {
+            checkpointer = new Checkpointer(grid);
+        }
+        syncEngine();
+        ticks = checkpointer.restore(checkpoints);
+        if (engine instanceof DeferredStateEngine deferred) {
+            deferred.reload();
+        }
+    }
+
+    /**
+     * Starts recording {@link TransportMetrics} for every transport on the grid, from this tick.
+     * Calling it again starts every count again from zero.
+     *
+     * @return the metrics of each transport, in storage order; snapshots of them may be taken from
+     *         any thread while the simulation runs
+     * @throws UnsupportedActionException if the simulator ticks with an {@link ArrayTickKernel} or
+     *                                    a {@link SparseTickEngine}, which skip the transports'
+     *                                    own tick methods
+     */
+    public Map<Transport, TransportMetrics> enableMetrics() {
+        if (engine instanceof DeferredStateEngine) {
+            throw new UnsupportedActionException("The engine does not tick every transport");
+        }
+        return TransportMetrics.attach(grid);
+    }
+
+    /**
+     * Brings the transports up to date with the engine, if the engine keeps its own copy of their
+     * state.
+     */
+    private void syncEngine() {
+        if (engine instanceof DeferredStateEngine deferred) {
+            deferred.sync();
+        }
+    }
+
+    /**
+     * Advances the simulation by one tick.
+     *
+     * @throws lms.exceptions.BadStateException if a receiver is given the wrong item
+     */
+    public void step() {
+        engine.tick();
+        ticks++;
+    }
+
+    /**
+     * Runs the given number of ticks.
+     *
+     * @param count number of ticks to run
+     * @return the result of the run
+     * @throws IllegalArgumentException         if count &lt; 0
+     * @throws lms.exceptions.BadStateException if a receiver is given the wrong item
+     */
+    public SimulationResult run(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+        long delivered = getDelivered();
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            step();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new SimulationResult(count, elapsed, getDelivered() - delivered);
+    }
+
+    /**
+     * Runs ticks until the given condition holds, or until maxTicks ticks have been run. The
+     * condition is checked before every tick, so no ticks are run if it already holds.
+     *
+     * @param condition condition to stop at, given this simulator
+     * @param maxTicks  most ticks to run
+     * @return the result of the run
+     * @throws IllegalArgumentException         if condition is null or maxTicks &lt; 0
+     * @throws lms.exceptions.BadStateException if a receiver is given the wrong item
+     */
+    public SimulationResult runUntil(Predicate<Simulator> condition, long maxTicks) {
+        if (condition == null || maxTicks < 0) {
+            throw new IllegalArgumentException();
+        }
+        long delivered = getDelivered();
+        long count = 0;
+        long start = System.nanoTime();
+        while (count < maxTicks && !condition.test(this)) {
+            step();
+            count++;
+        }
+        long elapsed = System.nanoTime() - start;
+        return new SimulationResult(count, elapsed, getDelivered() - delivered);
+    }
+
+    /**
+     * Advances the simulation by the given number of ticks, skipping ahead once it settles into a
+     * cycle. The result is exactly the same as running the ticks one by one.
+     * <p>
+     * The state of a grid is the item held by every transport and whether each producer will emit
+     * on its next tick. Since ticking is deterministic, once a state repeats the ticks between the
+     * two repeat forever. The state is hashed after every tick; when a hash repeats, the state is
+     * recorded and the candidate period run once more, and if the state after it is exactly the
+     * same, whole periods are skipped by adding the deliveries of one period to every receiver and
+     * the ticks to every producer's counter. A skip never takes a producer's counter past
+     * Integer.MAX_VALUE, where its cadence changes; the ticks beyond that are run normally.
+     *
+     * @param count number of ticks to advance
+     * @return the result of the advance
+     * @throws IllegalArgumentException         if count &lt; 0
+     * @throws lms.exceptions.BadStateException if a receiver is given the wrong item
+     */
+    public SimulationResult advance(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+        long delivered = getDelivered();
+        long start = System.nanoTime();
+        Transport[] transports = grid.transports().toArray(Transport[]::new);
+        int[] state = new int[transports.length];
+        // remaining tick count at which each state hash was last seen
+        Map<Long, Long> seen = new HashMap<>();
+        long remaining = count;
+        while (remaining > 0) {
+            syncEngine();
+            Long earlier = seen.put(captureState(transports, state), remaining);
+            long period = earlier == null ? 0 : earlier - remaining;
+            if (period > 0 && period <= remaining) {
+                seen.clear();
+                remaining -= skipCycle(transports, state, period, remaining);
+            } else if (seen.size() > MAX_STATES) {
+                seen.clear();
+            }
+            if (remaining > 0) {
+                step();
+                remaining--;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new SimulationResult(count, elapsed, getDelivered() - delivered);
+    }
+
+    /**
+     * Runs the given candidate period once, and if the grid comes back to the state it started in,
+     * skips as many further whole periods as fit in the remaining ticks.
+     *
+     * @param transports every transport on the grid
+     * @param state      the state of the grid now, as filled in by captureState
+     * @param period     the candidate period
+     * @param remaining  ticks left to advance, at least period
+     * @return the number of ticks run or skipped
+     */
+    private long skipCycle(Transport[] transports, int[] state, long period, long remaining) {
+        int[] before = state.clone();
+        long[] received = receivedCounts(transports);
+        for (long i = 0; i < period; i++) {
+            step();
+        }
+        syncEngine();
+        captureState(transports, state);
+        if (!Arrays.equals(before, state)) {
+            return period; // a hash collision, or the grid has not settled yet
+        }
+
+        long limit = (remaining - period) / period;
+        for (Transport transport : transports) {
+            if (transport instanceof Producer producer) {
+                int counter = producer.getCounter();
+                // a counter changes cadence at 0 and at Integer.MAX_VALUE
+                long headroom = counter < 0 ? -(long) counter : Integer.MAX_VALUE - (long) counter;
+                limit = Math.min(limit, headroom / period);
+            }
+        }
+        long skipped = limit * period;
+        for (int i = 0; i < transports.length; i++) {
+            if (transports[i] instanceof Producer producer) {
+                producer.setCounter((int) (producer.getCounter() + skipped));
+            } else if (transports[i] instanceof Receiver receiver) {
+                long perPeriod = receiver.getReceivedCount() - received[i];
+                receiver.setReceivedCount(receiver.getReceivedCount() + limit * perPeriod);
+            }
+        }
+        ticks += skipped;
+        if (engine instanceof DeferredStateEngine deferred) {
+            deferred.reload();
+        }
+        return period + skipped;
+    }
+
+    /**
+     * Records the state of the grid that decides its future: the item held by each transport and,
+     * for each producer, the remainder of its counter divided by 2.
+     *
+     * @param transports every transport on the grid
+     * @param state      array to fill in, one entry per transport
+     * @return a 64-bit hash of the state
+     */
+    private static long captureState(Transport[] transports, int[] state) {
+        long hash = 0;
+        for (int i = 0; i < transports.length; i++) {
+            Transport transport = transports[i];
+            Item item = transport.peekInventory();
+            int value = item == null ? 0 : ItemRegistry.intern(item).getId();
+            if (transport instanceof Producer producer) {
+                value = value * 4 + producer.getCounter() % 2 + 1;
+            }
+            state[i] = value;
+            hash = (hash + value) * 0x9E3779B97F4A7C15L;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the number of items each receiver has consumed.
+     *
+     * @param transports every transport on the grid
+     * @return the received count of each receiver, 0 for other transports
+     */
+    private static long[] receivedCounts(Transport[] transports) {
+        long[] counts = new long[transports.length];
+        for (int i = 0; i < transports.length; i++) {
+            if (transports[i] instanceof Receiver receiver) {
+                counts[i] = receiver.getReceivedCount();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Loads a save file and runs it for a number of ticks, printing the result to standard output.
+     * If "parallel" is given as a third argument, independent chains are ticked with a
+     * {@link ParallelTickEngine}; if "kernel" is given, the grid is ticked with an
+     * {@link ArrayTickKernel}; and if "sparse" is given, with a {@link SparseTickEngine}.
+     *
+     * @param args the save file to load, the number of ticks to run and optionally "parallel",
+     *             "kernel" or "sparse"
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3
+                || (args.length == 3 && !ENGINES.contains(args[2]))) {
+            LOG.error(() -> "Usage: save_file ticks [parallel|kernel|sparse]");
+            Logger.flush();
+            System.exit(1);
+        }
+        try {
+            // the engines reuse the scheduler compiled while loading
+            LoadedGame game = loadGame(args[0]);
+            TickScheduler scheduler = game.getScheduler();
+            Tickable engine = args.length < 3 ? scheduler : switch (args[2]) {
+                case "kernel" -> new ArrayTickKernel(scheduler);
+                case "sparse" -> new SparseTickEngine(scheduler);
+                default -> new ParallelTickEngine(scheduler);
+            };
+            Simulator simulator = new Simulator(game.getGrid(), engine);
+            System.out.println(simulator.run(Long.parseLong(args[1])));
+        } catch (NumberFormatException e) {
+            LOG.error(() -> "Number of ticks must be an integer: " + args[1]);
+            Logger.flush();
+            System.exit(1);
+        } catch (IOException | FileFormatException e) {
+            LOG.error(() -> "Could not load " + args[0], e);
+            Logger.flush();
+            System.exit(1);
+        }
+    }
+}
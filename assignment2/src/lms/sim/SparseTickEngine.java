@@ -0,0 +1,307 @@
+package lms.sim;
+
+import lms.logistics.Item;
+import lms.logistics.TickScheduler;
+import lms.logistics.Transport;
+import lms.logistics.container.Producer;
+
+import java.util.BitSet;
+
+/**
+ * Ticks only the transports of a grid that can do something, in the order of a
+ * {@link TickScheduler}, so that a tick costs time proportional to the activity on the grid rather
+ * than to its size.
+ * <p>
+ * A belt or receiver can only act while it holds an item, and a belt whose successor is full stays
+ * stalled until the successor empties. The engine keeps a set of active positions in the tick
+ * order: a transport is added when an item arrives at it or when its successor empties, and
+ * dropped once it has been ticked. A transport that becomes active further along the order during
+ * a tick is ticked in the same tick, exactly as the scheduler would tick it; one that becomes
+ * active behind the current position is ticked in the next. Only the transport ticked and its
+ * successor can change in a tick, so the engine sees every change by comparing the two before and
+ * after.
+ * <p>
+ * A producer only emits on the ticks that make its counter odd, so producers are grouped by the
+ * parity of their counter and each group is ticked every second tick, with its counter brought up
+ * to date just before. Between their ticks the counters of producers fall behind; {@link #sync()}
+ * brings them up to date.
+ * <p>
+ * The real tick method of each transport is called, so the result is exactly what
+ * {@link TickScheduler#tick()} would produce. Changes made to the transports between ticks from
+ * outside the engine are not seen until {@link #reload()}; the engine reloads itself whenever the
+ * scheduler recompiles.
+ *
+ * @ass2
+ */
+public class SparseTickEngine implements DeferredStateEngine {
+
+    /**
+     * scheduler providing the tick order
+     */
+    private final TickScheduler scheduler;
+
+    /**
+     * compile count of the scheduler the positions were read from
+     */
+    private int compiled;
+
+    /**
+     * transports, indexed by position in the tick order
+     */
+    private Transport[] transports;
+
+    /**
+     * position of the successor of each transport, or -1 if it has none
+     */
+    private int[] successors;
+
+    /**
+     * predecessors of position i are predecessors[predecessorStart[i]] up to
+     * predecessors[predecessorStart[i + 1]]
+     */
+    private int[] predecessorStart;
+
+    /**
+     * positions of the transports outputting to each transport, grouped by predecessorStart
+     */
+    private int[] predecessors;
+
+    /**
+     * positions of the producers
+     */
+    private BitSet producers;
+
+    /**
+     * positions of the producers whose counter was even (index 0) or odd (index 1) at the last
+     * reload, in increasing order
+     */
+    private int[][] producersByParity;
+
+    /**
+     * counter at the last reload of each producer in producersByParity
+     */
+    private int[][] countersByParity;
+
+    /**
+     * positions to tick in the current tick
+     */
+    private BitSet current = new BitSet();
+
+    /**
+     * positions to tick in the next tick
+     */
+    private BitSet next = new BitSet();
+
+    /**
+     * position being ticked, or -1 between ticks
+     */
+    private int cursor = -1;
+
+    /**
+     * ticks since the last reload
+     */
+    private long ticks;
+
+    /**
+     * Creates an engine ticking the transports of the given scheduler, reading their current
+     * state.
+     *
+     * @param scheduler the scheduler providing the tick order
+     * @throws IllegalArgumentException if scheduler is null
+     */
+    public SparseTickEngine(TickScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException();
+        }
+        this.scheduler = scheduler;
+        reload();
+    }
+
+    /**
+     * Reads the tick order and the state of the transports again: every belt and receiver holding
+     * an item becomes active, and the producers are grouped by their current counters.
+     */
+    @Override
+    public void reload() {
+        scheduler.compileIfStale();
+        int size = scheduler.size();
+        transports = new Transport[size];
+        successors = new int[size];
+        predecessorStart = new int[size + 1];
+        producers = new BitSet(size);
+        current = new BitSet(size);
+        next = new BitSet(size);
+        int[] parityCount = new int[2];
+        for (int i = 0; i < size; i++) {
+            Transport transport = scheduler.getTransport(i);
+            transports[i] = transport;
+            successors[i] = scheduler.getSuccessor(i);
+            if (successors[i] >= 0) {
+                predecessorStart[successors[i] + 1]++;
+            }
+            if (transport instanceof Producer producer) {
+                producers.set(i);
+                parityCount[producer.getCounter() & 1]++;
+            } else if (transport.peekInventory() != null) {
+                current.set(i);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            predecessorStart[i + 1] += predecessorStart[i];
+        }
+        predecessors = new int[predecessorStart[size]];
+        int[] filled = new int[size];
+        producersByParity = new int[][]{new int[parityCount[0]], new int[parityCount[1]]};
+        countersByParity = new int[][]{new int[parityCount[0]], new int[parityCount[1]]};
+        int[] grouped = new int[2];
+        for (int i = 0; i < size; i++) {
+            int successor = successors[i];
+            if (successor >= 0) {
+                predecessors[predecessorStart[successor] + filled[successor]++] = i;
+            }
+            if (producers.get(i)) {
+                int counter = ((Producer) transports[i]).getCounter();
+                int parity = counter & 1;
+                producersByParity[parity][grouped[parity]] = i;
+                countersByParity[parity][grouped[parity]++] = counter;
+            }
+        }
+        ticks = 0;
+        cursor = -1;
+        compiled = scheduler.getCompileCount();
+    }
+
+    /**
+     * Brings the counters of the producers up to date. The items held by the transports are
+     * always up to date.
+     */
+    @Override
+    public void sync() {
+        for (int parity = 0; parity < 2; parity++) {
+            for (int i = 0; i < producersByParity[parity].length; i++) {
+                ((Producer) transports[producersByParity[parity][i]])
+                        .setCounter((int) (countersByParity[parity][i] + ticks));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of positions that will be ticked in the next tick, not counting
+     * producers.
+     *
+     * @return the number of active belts and receivers
+     */
+    public int getActiveCount() {
+        return current.cardinality();
+    }
+
+    /**
+     * Advances every transport by one tick, ticking only the active belts and receivers and the
+     * producers due to emit, in the scheduler's order.
+     *
+     * @throws lms.exceptions.BadStateException if a receiver is given the wrong item; the ticks
+     *                                          before it in the order have already happened
+     */
+    @Override
+    public void tick() {
+        if (scheduler.compileIfStale() || compiled != scheduler.getCompileCount()) {
+            sync();
+            reload();
+        }
+        // producers whose counter is now even make it odd, and so emit, on this tick
+        int parity = (int) (ticks & 1);
+        int[] due = producersByParity[parity];
+        int[] dueCounters = countersByParity[parity];
+        int producer = 0;
+        try {
+            while (true) {
+                int active = current.nextSetBit(cursor + 1);
+                int emitting = producer < due.length ? due[producer] : -1;
+                if (active < 0 && emitting < 0) {
+                    break;
+                }
+                if (active < 0 || (emitting >= 0 && emitting < active)) {
+                    cursor = emitting;
+                    ((Producer) transports[emitting])
+                            .setCounter((int) (dueCounters[producer] + ticks));
+                    producer++;
+                } else {
+                    cursor = active;
+                    current.clear(active);
+                }
+                tickAt(cursor);
+            }
+        } catch (RuntimeException e) {
+            // as with the scheduler, the producers before the failure have had this tick and the
+            // rest have not; everything else is read back from the transports
+            for (int group = 0; group < 2; group++) {
+                for (int i = 0; i < producersByParity[group].length; i++) {
+                    int position = producersByParity[group][i];
+                    ((Producer) transports[position]).setCounter((int) (countersByParity[group][i]
+                            + ticks + (position < cursor ? 1 : 0)));
+                }
+            }
+            reload();
+            throw e;
+        }
+        // every active position has been ticked, so current is empty
+        BitSet ticked = current;
+        current = next;
+        next = ticked;
+        cursor = -1;
+        ticks++;
+    }
+
+    /**
+     * Ticks the transport at the given position, activating whatever its tick made able to act.
+     *
+     * @param i position of the transport
+     */
+    private void tickAt(int i) {
+        Transport transport = transports[i];
+        int successor = successors[i];
+        Item before = transport.peekInventory();
+        Item successorBefore = successor < 0 ? null : transports[successor].peekInventory();
+        transport.tick();
+        if (before != null && transport.peekInventory() == null) {
+            activatePredecessors(i);
+        }
+        if (successorBefore == null && successor >= 0
+                && transports[successor].peekInventory() != null) {
+            activate(successor);
+        }
+    }
+
+    /**
+     * Activates the belts and receivers outputting to the given position, which has just emptied.
+     *
+     * @param i the position that emptied
+     */
+    private void activatePredecessors(int i) {
+        for (int p = predecessorStart[i]; p < predecessorStart[i + 1]; p++) {
+            int predecessor = predecessors[p];
+            if (transports[predecessor].peekInventory() != null) {
+                activate(predecessor);
+            }
+        }
+    }
+
+    /**
+     * Marks a belt or receiver to be ticked at its next turn: later in this tick if it comes after
+     * the position being ticked, otherwise in the next tick. Producers are ticked by parity
+     * instead.
+     *
+     * @param i the position to activate
+     */
+    private void activate(int i) {
+        if (producers.get(i)) {
+            return;
+        }
+        if (i > cursor) {
+            current.set(i);
+        } else {
+            next.set(i);
+        }
+    }
+}
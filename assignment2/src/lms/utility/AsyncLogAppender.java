@@ -0,0 +1,210 @@
+package lms.utility;
+
+import java.io.PrintStream;
+
+/**
+ * A {@link LogAppender} that hands messages to a background thread through a fixed-size ring
+ * buffer, so the thread logging a message never waits for the output stream.
+ * <p>
+ * If messages arrive faster than they can be written and the buffer fills up, new messages below
+ * WARN are dropped rather than blocking the caller; the number dropped is reported with the next
+ * message that is written. WARN and ERROR messages are never dropped: the caller waits for room in
+ * the buffer instead.
+ */
+public class AsyncLogAppender implements LogAppender {
+
+    /**
+     * longest time flush() waits for the writer thread, in milliseconds
+     */
+    private static final long FLUSH_TIMEOUT = 1000;
+
+    /**
+     * buffered messages, indexed by sequence number modulo the capacity
+     */
+    private final Entry[] ring;
+
+    /**
+     * capacity - 1, used to turn a sequence number into an index into ring
+     */
+    private final int mask;
+
+    /**
+     * stream the messages are written to
+     */
+    private final PrintStream out;
+
+    /**
+     * sequence number of the next message to take from the buffer
+     */
+    private long head;
+
+    /**
+     * sequence number of the next message to add to the buffer
+     */
+    private long tail;
+
+    /**
+     * number of messages taken from the buffer and written to out
+     */
+    private long written;
+
+    /**
+     * number of messages dropped since the last one was written
+     */
+    private long dropped;
+
+    /**
+     * Creates an appender writing to the given stream, buffering at most capacity messages, and
+     * starts its writer thread. The writer is a daemon thread, so it does not keep the program
+     * alive.
+     *
+     * @param out      the stream to write messages to
+     * @param capacity the most messages to buffer, rounded up to a power of two
+     * @throws IllegalArgumentException if out is null or capacity &lt; 1
+     */
+    public AsyncLogAppender(PrintStream out, int capacity) {
+        if (out == null || capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        int size = Integer.highestOneBit(capacity);
+        this.ring = new Entry[size < capacity ? size << 1 : size];
+        this.mask = ring.length - 1;
+        this.out = out;
+
+        Thread writer = new Thread(this::drain, "lms-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Adds a message to the buffer. If the buffer is full, a message below WARN is dropped, and a
+     * WARN or ERROR message waits until the writer thread makes room for it; if the caller is
+     * interrupted while waiting, the message is dropped and the interrupt status is kept.
+     *
+     * @param level   the level of the message
+     * @param source  the name of the logger the message was sent to
+     * @param message the text of the message
+     * @param error   the Throwable to report with the message, or null if there is none
+     */
+    @Override
+    public synchronized void append(LogLevel level, String source, String message,
+                                    Throwable error) {
+        while (tail - head == ring.length) {
+            if (level.compareTo(LogLevel.WARN) < 0) {
+                dropped++;
+                return;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped++;
+                return;
+            }
+        }
+        ring[(int) (tail & mask)] = new Entry(level, source, message, error);
+        tail++;
+        notifyAll();
+    }
+
+    /**
+     * Waits until every message appended so far has been written, or until a second has passed.
+     */
+    @Override
+    public synchronized void flush() {
+        long target = tail;
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT;
+        while (written < target) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return;
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Body of the writer thread: takes messages from the buffer in order and writes them out.
+     */
+    private void drain() {
+        while (true) {
+            Entry entry;
+            long lost;
+            synchronized (this) {
+                while (head == tail) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                int index = (int) (head & mask);
+                entry = ring[index];
+                ring[index] = null;
+                head++;
+                lost = dropped;
+                dropped = 0;
+            }
+
+            if (lost > 0) {
+                out.println("[WARN] " + getClass().getSimpleName() + ": " + lost
+                        + " log messages dropped");
+            }
+            out.println("[" + entry.level + "] " + entry.source + ": " + entry.message);
+            if (entry.error != null) {
+                entry.error.printStackTrace(out);
+            }
+
+            synchronized (this) {
+                written++;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * A message waiting in the buffer.
+     */
+    private static final class Entry {
+
+        /**
+         * level of the message
+         */
+        private final LogLevel level;
+
+        /**
+         * name of the logger the message was sent to
+         */
+        private final String source;
+
+        /**
+         * text of the message
+         */
+        private final String message;
+
+        /**
+         * Throwable reported with the message, or null
+         */
+        private final Throwable error;
+
+        /**
+         * Creates a buffered message.
+         *
+         * @param level   level of the message
+         * @param source  name of the logger the message was sent to
+         * @param message text of the message
+         * @param error   Throwable reported with the message, or null
+         */
+        private Entry(LogLevel level, String source, String message, Throwable error) {
+            this.level = level;
+            this.source = source;
+            this.message = message;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package lms.utility;
+
+/**
+ * Destination for the messages accepted by a {@link Logger}.
+ */
+public interface LogAppender {
+
+    /**
+     * Writes a message that has passed the level threshold.
+     *
+     * @param level   the level of the message
+     * @param source  the name of the logger the message was sent to
+     * @param message the text of the message
+     * @param error   the Throwable to report with the message, or null if there is none
+     */
+    void append(LogLevel level, String source, String message, Throwable error);
+
+    /**
+     * Waits until every message appended so far has been written. Appenders that write
+     * immediately have nothing to wait for.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,14 @@
+package lms.utility;
+
+/**
+ * The severity of a log message, from least to most severe. A {@link Logger} only passes on
+ * messages at or above its threshold; OFF is above every message, so it discards them all.
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+}
@@ -0,0 +1,216 @@
+package lms.utility;
+
+import java.util.function.Supplier;
+
+/**
+ * A small logging facade for the lms packages.
+ * <p>
+ * Messages are given as Suppliers, so nothing is formatted unless the message's level is at or
+ * above the threshold. Code that logs inside a loop should also check {@link #isEnabled(LogLevel)}
+ * first, so that not even the Supplier is created when the level is off:
+ * <pre>{@code
+ * if (LOG.isEnabled(LogLevel.DEBUG)) {
+ *     for (Path path : paths) {
+ *         LOG.debug(() -> "ticking " + path);
+ *     }
+ * }
+ * }</pre>
+ * The threshold is shared by every logger. It starts at the level named by the "lms.log.level"
+ * system property, or INFO if that is not set. Accepted messages go to an
+ * {@link AsyncLogAppender} writing to System.err unless another appender is installed; any
+ * buffered messages are flushed when the JVM shuts down.
+ */
+public final class Logger {
+
+    /**
+     * lowest level passed on to the appender
+     */
+    private static volatile LogLevel threshold = initialThreshold();
+
+    /**
+     * destination of every accepted message
+     */
+    private static volatile LogAppender appender = new AsyncLogAppender(System.err, 1024);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(Logger::flush, "lms-log-flush"));
+    }
+
+    /**
+     * name reported with each message
+     */
+    private final String name;
+
+    /**
+     * Creates a logger reporting messages under the given name.
+     *
+     * @param name the name to report
+     */
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns a logger named after the given class.
+     *
+     * @param owner the class that logs
+     * @return a logger for owner
+     * @throws IllegalArgumentException if owner is null
+     */
+    public static Logger getLogger(Class<?> owner) {
+        if (owner == null) {
+            throw new IllegalArgumentException();
+        }
+        return new Logger(owner.getSimpleName());
+    }
+
+    /**
+     * Reads the starting threshold from the "lms.log.level" system property.
+     *
+     * @return the named level, or INFO if the property is missing or not a level
+     */
+    private static LogLevel initialThreshold() {
+        String level = System.getProperty("lms.log.level");
+        if (level != null) {
+            try {
+                return LogLevel.valueOf(level.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // fall back to the default below
+            }
+        }
+        return LogLevel.INFO;
+    }
+
+    /**
+     * Sets the lowest level that is passed on to the appender.
+     *
+     * @param level the new threshold, or OFF to discard every message
+     * @throws IllegalArgumentException if level is null
+     */
+    public static void setLevel(LogLevel level) {
+        if (level == null) {
+            throw new IllegalArgumentException();
+        }
+        threshold = level;
+    }
+
+    /**
+     * Returns the lowest level that is passed on to the appender.
+     *
+     * @return the threshold
+     */
+    public static LogLevel getLevel() {
+        return threshold;
+    }
+
+    /**
+     * Replaces the destination of accepted messages. Messages already given to the previous
+     * appender are flushed first.
+     *
+     * @param newAppender the new destination
+     * @throws IllegalArgumentException if newAppender is null
+     */
+    public static void setAppender(LogAppender newAppender) {
+        if (newAppender == null) {
+            throw new IllegalArgumentException();
+        }
+        appender.flush();
+        appender = newAppender;
+    }
+
+    /**
+     * Waits until every message accepted so far has been written.
+     */
+    public static void flush() {
+        appender.flush();
+    }
+
+    /**
+     * Returns true if messages of the given level are passed on to the appender.
+     *
+     * @param level the level to check
+     * @return true if level is at or above the threshold
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level != LogLevel.OFF && level.compareTo(threshold) >= 0;
+    }
+
+    /**
+     * Logs a message at the given level, creating it only if the level is enabled.
+     *
+     * @param level   the level of the message
+     * @param message supplies the text of the message
+     */
+    public void log(LogLevel level, Supplier<String> message) {
+        log(level, message, null);
+    }
+
+    /**
+     * Logs a message and a Throwable at the given level, creating the message only if the level is
+     * enabled.
+     *
+     * @param level   the level of the message
+     * @param message supplies the text of the message
+     * @param error   the Throwable to report with the message, may be null
+     */
+    public void log(LogLevel level, Supplier<String> message, Throwable error) {
+        if (isEnabled(level)) {
+            appender.append(level, name, message.get(), error);
+        }
+    }
+
+    /**
+     * Logs a message at TRACE level.
+     *
+     * @param message supplies the text of the message
+     */
+    public void trace(Supplier<String> message) {
+        log(LogLevel.TRACE, message);
+    }
+
+    /**
+     * Logs a message at DEBUG level.
+     *
+     * @param message supplies the text of the message
+     */
+    public void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    /**
+     * Logs a message at INFO level.
+     *
+     * @param message supplies the text of the message
+     */
+    public void info(Supplier<String> message) {
+        log(LogLevel.INFO, message);
+    }
+
+    /**
+     * Logs a message at WARN level.
+     *
+     * @param message supplies the text of the message
+     */
+    public void warn(Supplier<String> message) {
+        log(LogLevel.WARN, message);
+    }
+
+    /**
+     * Logs a message at ERROR level.
+     *
+     * @param message supplies the text of the message
+     */
+    public void error(Supplier<String> message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    /**
+     * Logs a message and a Throwable at ERROR level.
+     *
+     * @param message supplies the text of the message
+     * @param error   the Throwable to report with the message
+     */
+    public void error(Supplier<String> message, Throwable error) {
+        log(LogLevel.ERROR, message, error);
+    }
+}
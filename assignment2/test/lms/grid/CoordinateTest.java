@@ -0,0 +1,88 @@
+package lms.grid;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test Coordinate class
+ */
+public class CoordinateTest {
+
+    /**
+     * Test packed keys round trip, including negative components
+     */
+    @Test
+    public void packTest() {
+        long key = Coordinate.pack(-3, 7);
+        assertEquals(-3, Coordinate.unpackQ(key));
+        assertEquals(7, Coordinate.unpackR(key));
+        assertEquals(Coordinate.pack(2, -5), new Coordinate(2, -5).getKey());
+        assertNotEquals(Coordinate.pack(0, -1), Coordinate.pack(-1, 0));
+    }
+
+    /**
+     * Test the named neighbours agree with the offset tables and packed keys
+     */
+    @Test
+    public void neighbourTest() {
+        Coordinate origin = new Coordinate();
+        assertEquals(new Coordinate(-1, 0, 1), origin.getLeft());
+        assertEquals(new Coordinate(1, 0, -1), origin.getRight());
+        assertEquals(new Coordinate(0, -1, 1), origin.getTopLeft());
+        assertEquals(new Coordinate(1, -1, 0), origin.getTopRight());
+        assertEquals(new Coordinate(-1, 1, 0), origin.getBottomLeft());
+        assertEquals(new Coordinate(0, 1, -1), origin.getBottomRight());
+
+        Coordinate start = new Coordinate(2, -1);
+        for (Orientation direction : Orientation.values()) {
+            Coordinate next = start.getNeighbour(direction);
+            assertEquals(next.getKey(), Coordinate.neighbour(start.getKey(), direction));
+            assertTrue(start.isNeighbour(next));
+            assertTrue(Coordinate.isNeighbour(2, -1, next.getQ(), next.getR()));
+            assertEquals(direction, start.getDirection(next));
+        }
+    }
+
+    /**
+     * Test isNeighbour rejects the coordinate itself and coordinates further away
+     */
+    @Test
+    public void isNeighbourTest() {
+        Coordinate origin = new Coordinate();
+        assertFalse(origin.isNeighbour(origin));
+        assertFalse(origin.isNeighbour(new Coordinate(1, 1)));
+        assertFalse(origin.isNeighbour(new Coordinate(2, -1)));
+        assertFalse(Coordinate.isNeighbour(0, 0, -1, -1));
+        assertFalse(Coordinate.isNeighbour(0, 0, 0, 0));
+    }
+
+    /**
+     * Test getDirection along straight lines and off them
+     */
+    @Test
+    public void getDirectionTest() {
+        Coordinate origin = new Coordinate();
+        assertEquals(Orientation.RIGHT, origin.getDirection(new Coordinate(3, 0)));
+        assertEquals(Orientation.BOTTOM_LEFT, origin.getDirection(new Coordinate(-2, 2)));
+        try {
+            origin.getDirection(new Coordinate(2, -1));
+            fail("Not in a straight line");
+        } catch (RuntimeException ex) {
+            assertEquals("Got incorrect directions from one coordinate", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test of returns shared instances that agree with the constructors
+     */
+    @Test
+    public void ofTest() {
+        assertSame(Coordinate.of(3, -5), Coordinate.of(3, -5));
+        assertSame(Coordinate.of(0, 0), new Coordinate().getLeft().getRight());
+        assertEquals(new Coordinate(3, -5), Coordinate.of(3, -5));
+        assertEquals(new Coordinate(3, -5).hashCode(), Coordinate.of(3, -5).hashCode());
+        assertEquals(new Coordinate(1000, 0), Coordinate.of(1000, 0));
+        assertSame(Coordinate.of(1, 1), new GameGrid(3).getCoordinateAt(26));
+    }
+}
@@ -1,5 +1,6 @@
 package lms.grid;
 
+import java.util.List;
 import java.util.Map;
 
 import lms.logistics.Path;
@@ -83,4 +84,75 @@ public class GameGridTest {
         assertNull(gameGrid.getGrid().get(coordinate));
     }
 
+    /**
+     * Test every cell index maps back to its own coordinate
+     */
+    @Test
+    public void indexOfRoundTripTest() {
+        assertEquals(37, gameGrid.size());
+        for (int i = 0; i < gameGrid.size(); i++) {
+            assertEquals(i, gameGrid.indexOf(gameGrid.getCoordinateAt(i)));
+        }
+        assertEquals(-1, gameGrid.indexOf(new Coordinate(4, -4)));
+        assertEquals(-1, gameGrid.indexOf(new Coordinate(1, 1, 1)));
+    }
+
+    /**
+     * Test cells are stored row by row, left to right, from the top of the grid
+     */
+    @Test
+    public void memoryOrderTest() {
+        assertEquals(new Coordinate(0, -3), gameGrid.getCoordinateAt(0));
+        assertEquals(new Coordinate(1, -3), gameGrid.getCoordinateAt(1));
+        assertEquals(new Coordinate(-1, -2), gameGrid.getCoordinateAt(4));
+        assertEquals(new Coordinate(), gameGrid.getCoordinateAt(18));
+        assertEquals(new Coordinate(0, 3), gameGrid.getCoordinateAt(36));
+    }
+
+    /**
+     * Test setCoordinate outside the grid
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setCoordinateOutsideGridTest() {
+        gameGrid.setCoordinate(new Coordinate(4, 0), () -> "o");
+    }
+
+    /**
+     * Test the view returned by getGrid is live and read-only
+     */
+    @Test
+    public void getGridViewTest() {
+        Map<Coordinate, GridComponent> view = gameGrid.getGrid();
+        GridComponent component = () -> "o";
+        gameGrid.setCoordinate(new Coordinate(1, -1), component);
+        assertSame(component, view.get(new Coordinate(1, -1)));
+        try {
+            view.put(new Coordinate(), component);
+            fail("View should not be modifiable");
+        } catch (UnsupportedOperationException ex) {
+            assertEquals(37, view.size());
+        }
+    }
+
+    /**
+     * Test snapshot is a detached copy
+     */
+    @Test
+    public void snapshotTest() {
+        Map<Coordinate, GridComponent> copy = gameGrid.snapshot();
+        copy.remove(new Coordinate());
+        assertEquals(36, copy.size());
+        assertEquals(37, gameGrid.getGrid().size());
+    }
+
+    /**
+     * Test transports only streams the Transport cells
+     */
+    @Test
+    public void transportsTest() {
+        Belt belt = new Belt(1);
+        gameGrid.setCoordinate(new Coordinate(0, 1), belt);
+        gameGrid.setCoordinate(new Coordinate(1, 1), () -> "w");
+        assertEquals(List.of(belt), gameGrid.transports().toList());
+    }
 }
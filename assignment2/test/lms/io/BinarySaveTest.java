@@ -0,0 +1,95 @@
+package lms.io;
+
+import lms.exceptions.FileFormatException;
+import lms.grid.GameGrid;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test BinarySave class
+ */
+public class BinarySaveTest {
+
+    /**
+     * Writes the given grid in the text format.
+     *
+     * @param grid the grid to write
+     * @return the text save
+     */
+    private static String text(GameGrid grid) throws IOException {
+        StringWriter writer = new StringWriter();
+        GameWriter.write(grid, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Writes the given grid in the binary format.
+     *
+     * @param grid the grid to write
+     * @return the binary save
+     */
+    private static byte[] binary(GameGrid grid) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySave.write(grid, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Test a save survives a round trip through the binary format, links included
+     */
+    @Test
+    public void roundTripTest() throws IOException, FileFormatException {
+        GameGrid grid = GameLoader.load(new FileReader("saves/gridNumberedExample.txt"));
+        LoadedGame loaded = BinarySave.load(ByteBuffer.wrap(binary(grid)));
+        assertEquals(text(grid), text(loaded.getGrid()));
+        assertEquals(2, loaded.getScheduler().getChainCount());
+    }
+
+    /**
+     * Test a binary save file is loaded through a mapped file and detected by its magic number
+     */
+    @Test
+    public void fileTest() throws IOException, FileFormatException {
+        Path save = Files.createTempFile("grid", ".lmsb");
+        try {
+            GameGrid grid = GameLoader.load(new FileReader("saves/grid3.txt"));
+            BinarySave.write(grid, save);
+            assertTrue(SaveConverter.isBinary(save));
+            assertFalse(SaveConverter.isBinary(Path.of("saves/grid3.txt")));
+            assertEquals(text(grid), text(BinarySave.load(save).getGrid()));
+        } finally {
+            Files.delete(save);
+        }
+    }
+
+    /**
+     * Test corrupt and truncated binary saves are rejected
+     */
+    @Test
+    public void invalidTest() throws IOException, FileFormatException {
+        byte[] save = binary(GameLoader.load(new FileReader("saves/grid3.txt")));
+        byte[] corrupt = save.clone();
+        corrupt[0] = 'X';
+        try {
+            BinarySave.load(ByteBuffer.wrap(corrupt));
+            fail("Magic number is wrong");
+        } catch (FileFormatException ex) {
+            assertEquals("Not a binary save", ex.getMessage());
+        }
+        try {
+            BinarySave.load(ByteBuffer.wrap(save, 0, save.length - 1));
+            fail("Save is truncated");
+        } catch (FileFormatException ex) {
+            assertEquals("Binary save ends unexpectedly", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package lms.io;
+
+import lms.exceptions.FileFormatException;
+import lms.grid.GameGrid;
+import lms.logistics.Transport;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test GameLoader class
+ */
+public class GameLoaderTest {
+
+    /**
+     * sections of a range 1 save, before the layout
+     */
+    private static final String HEADER = "1\n_____\n1\n1\n_____\nkey\n_____\nkey\n_____\n";
+
+    /**
+     * Loads the given save text.
+     *
+     * @param text the save file contents
+     * @return the loaded grid
+     */
+    private static GameGrid load(String text) throws IOException, FileFormatException {
+        return GameLoader.load(new StringReader(text));
+    }
+
+    /**
+     * Test a well formed save loads every node
+     */
+    @Test
+    public void loadTest() throws IOException, FileFormatException {
+        GameGrid grid = load(HEADER + "w o\np b r\nw w\n_____\n2-1,3\n");
+        assertEquals(7, grid.size());
+        assertEquals("wopbrww", encode(grid));
+    }
+
+    /**
+     * Test a short row reports the line and the column just past its end
+     */
+    @Test
+    public void shortRowTest() throws IOException {
+        try {
+            load(HEADER + "w o\np b\nw w\n_____\n");
+            fail("Row is missing a node");
+        } catch (FileFormatException ex) {
+            assertEquals("Row should have 3 nodes (line: 11, column: 4)", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test an unknown node type reports the column of the token
+     */
+    @Test
+    public void unknownNodeTest() throws IOException {
+        try {
+            load(HEADER + "w o\np  s r\nw w\n_____\n");
+            fail("s is not a node type");
+        } catch (FileFormatException ex) {
+            assertEquals("Unknown node type \"s\" (line: 11, column: 4)", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test a belt line without connections and a truncated file are rejected
+     */
+    @Test
+    public void badConnectionTest() throws IOException {
+        try {
+            load(HEADER + "w o\np b r\nw w\n_____\n2-,\n");
+            fail("Belt has no connections");
+        } catch (FileFormatException ex) {
+            assertEquals("Belt has no connections (line: 14, column: 1)", ex.getMessage());
+        }
+        try {
+            load(HEADER + "w o\n");
+            fail("File ends in the layout");
+        } catch (FileFormatException ex) {
+            assertTrue(ex.getMessage().startsWith("Unexpected end of file"));
+        }
+    }
+
+    /**
+     * Test connections are linked on both ends, with links given from one side only
+     */
+    @Test
+    public void connectionTest() throws IOException, FileFormatException {
+        LoadedGame game = GameLoader.loadGame(new StringReader(
+                HEADER + "w o\np b r\nw w\n_____\n1-2\n2-,3\n"));
+        Transport producer = (Transport) game.getGrid().getComponentAt(2);
+        Transport belt = (Transport) game.getGrid().getComponentAt(3);
+        Transport receiver = (Transport) game.getGrid().getComponentAt(4);
+        assertSame(belt.getPath(), producer.getOutput());
+        assertSame(producer.getPath(), belt.getInput());
+        assertSame(receiver.getPath(), belt.getOutput());
+        assertSame(belt.getPath(), receiver.getInput());
+        assertEquals(1, game.getScheduler().getChainCount());
+        assertSame(producer.getPath(), game.getScheduler().getChainHead(0));
+    }
+
+    /**
+     * Test links between distant, unknown or already linked nodes are rejected
+     */
+    @Test
+    public void badLinkTest() throws IOException {
+        String layout = HEADER + "w o\np b r\nw w\n_____\n";
+        String[][] cases = {
+            {"1-3", "Node 1 is not next to node 3 (line: 14, column: 3)"},
+            {"2-1,9", "Unknown node 9 (line: 14, column: 5)"},
+            {"2-1", "Belt connections must be given as id-previous,next (line: 14, column: 1)"},
+            {"2-,1", "Producer 1 cannot have an input (line: 14, column: 4)"},
+            {"1-", "Expected the id of the connected node (line: 14, column: 3)"},
+            {"3-", "Expected the id of the connected node (line: 14, column: 3)"},
+        };
+        for (String[] test : cases) {
+            try {
+                load(layout + test[0] + "\n");
+                fail(test[0]);
+            } catch (FileFormatException ex) {
+                assertEquals(test[1], ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Test loadAll loads each save independently and reports failures per save
+     */
+    @Test
+    public void loadAllTest() throws Exception {
+        java.nio.file.Path good = Files.createTempFile("grid", ".txt");
+        java.nio.file.Path bad = Files.createTempFile("grid", ".txt");
+        try {
+            Files.writeString(good, HEADER + "w o\np b r\nw w\n_____\n");
+            Files.writeString(bad, HEADER + "w o\n");
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            try {
+                List<CompletableFuture<GameGrid>> results =
+                        GameLoader.loadAll(List.of(good, bad, good), pool);
+                assertEquals(3, results.size());
+                assertEquals("wopbrww", encode(results.get(0).join()));
+                assertNotSame(results.get(0).join(), results.get(2).join());
+                try {
+                    results.get(1).join();
+                    fail("Save is truncated");
+                } catch (CompletionException ex) {
+                    assertTrue(ex.getCause() instanceof FileFormatException);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            Files.delete(good);
+            Files.delete(bad);
+        }
+    }
+
+    /**
+     * Concatenates the encodings of the grid in storage order.
+     *
+     * @param grid the grid to encode
+     * @return the encodings of every cell
+     */
+    private static String encode(GameGrid grid) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < grid.size(); i++) {
+            sb.append(grid.getComponentAt(i).getEncoding());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package lms.logistics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test ItemRegistry class
+ */
+public class ItemRegistryTest {
+
+    /**
+     * Test interning a name twice gives the same item, with an id that looks it up again
+     */
+    @Test
+    public void internTest() {
+        Item item = ItemRegistry.intern("registry-test");
+        assertSame(item, ItemRegistry.intern(new String("registry-test")));
+        assertSame(item, ItemRegistry.intern(new Item("registry-test")));
+        assertTrue(item.getId() > 0);
+        assertSame(item, ItemRegistry.get(item.getId()));
+        assertNotEquals(item.getId(), ItemRegistry.intern("registry-test-2").getId());
+    }
+
+    /**
+     * Test items with equal names are equal whether or not they are interned
+     */
+    @Test
+    public void equalsTest() {
+        Item plain = new Item(new String("registry-equals"));
+        Item interned = ItemRegistry.intern("registry-equals");
+        assertEquals(0, plain.getId());
+        assertEquals(plain, new Item(new String("registry-equals")));
+        assertEquals(plain, interned);
+        assertEquals(interned, plain);
+        assertEquals(plain.hashCode(), interned.hashCode());
+        assertNotEquals(interned, ItemRegistry.intern("registry-other"));
+    }
+}
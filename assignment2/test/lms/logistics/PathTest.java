@@ -189,6 +189,73 @@ public class PathTest {
         assertEquals(true, path2.equals(path3));
     }
 
-}
+    /**
+     * Test size, head and tail follow the chain as it is rewired
+     */
+    @Test
+    public void sizeAfterRewireTest() {
+        assertEquals(1, path.size());
 
+        path2 = new Path(belt);
+        Path path3 = new Path(receiver);
+        path2.setNext(path3);
+        path3.setPrevious(path2);
+        assertEquals(2, path2.size());
+        assertEquals(2, path3.size());
+        assertSame(path3, path2.tail());
+
+        path.setNext(path2);
+        path2.setPrevious(path);
+        assertEquals(3, path3.size());
+        assertSame(path, path3.head());
+        assertSame(path3, path.tail());
+
+        path2.setNext(null);
+        path3.setPrevious(null);
+        assertEquals(2, path.size());
+        assertSame(path2, path.tail());
+        assertSame(path3, path3.head());
+    }
 
+    /**
+     * Test describe truncates long chains and toString handles chains deeper than the stack
+     */
+    @Test
+    public void describeTest() throws Exception {
+        path2 = new Path(belt);
+        Path path3 = new Path(receiver);
+        path2.setNext(path3);
+        path3.setPrevious(path2);
+
+        StringBuilder sb = new StringBuilder();
+        path2.describe(sb, 1);
+        assertEquals("START -> <Belt-1> -> ... -> END", sb.toString());
+        sb.setLength(0);
+        path2.describe(sb, 2);
+        assertEquals("START -> <Belt-1> -> <Receiver-3> -> END", sb.toString());
+
+        Path current = path3;
+        for (int i = 0; i < 100000; i++) {
+            Path next = new Path(new Belt(i));
+            current.setNext(next);
+            next.setPrevious(current);
+            current = next;
+        }
+        assertTrue(path2.toString().endsWith("<Belt-99999> -> END"));
+    }
+
+    /**
+     * Test a chain linked one way only still follows links rewired further along it
+     */
+    @Test
+    public void oneWayRewireTest() {
+        Path first = new Path(belt);
+        Path second = new Path(receiver);
+        first.setNext(second);
+        assertEquals(2, first.size());
+
+        second.setNext(path);
+        assertEquals(3, first.size());
+        assertSame(path, first.tail());
+    }
+}
@@ -0,0 +1,125 @@
+package lms.logistics;
+
+import lms.grid.Coordinate;
+import lms.grid.GameGrid;
+import lms.logistics.belts.Belt;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+import org.junit.Before;
+import org.junit.Test;
+
+import static lms.logistics.TransportFixtures.link;
+import static lms.logistics.TransportFixtures.place;
+import static org.junit.Assert.*;
+
+/**
+ * Test TickScheduler class
+ */
+public class TickSchedulerTest {
+
+    private GameGrid grid;
+    private Producer producer;
+    private Belt belt;
+    private Receiver receiver;
+
+    @Before
+    public void setUp() {
+        grid = new GameGrid(1);
+        producer = new Producer(1, new Item("key"));
+        belt = new Belt(2);
+        receiver = new Receiver(3, new Item("key"));
+        grid.setCoordinate(new Coordinate(-1, 0), producer);
+        grid.setCoordinate(new Coordinate(0, 0), belt);
+        grid.setCoordinate(new Coordinate(1, 0), receiver);
+        link(producer, belt, receiver);
+    }
+
+    /**
+     * Test a chain is ordered from tail to head
+     */
+    @Test
+    public void chainOrderTest() {
+        TickScheduler scheduler = new TickScheduler(grid);
+        assertEquals(1, scheduler.getChainCount());
+        assertEquals(3, scheduler.size());
+        assertSame(receiver, scheduler.getTransport(0));
+        assertSame(belt, scheduler.getTransport(1));
+        assertSame(producer, scheduler.getTransport(2));
+        assertSame(producer.getPath(), scheduler.getChainHead(0));
+    }
+
+    /**
+     * Test ticking moves items along the chain exactly as Path.applyAll does
+     */
+    @Test
+    public void tickTest() {
+        TickScheduler scheduler = new TickScheduler(grid);
+        scheduler.tick();
+        assertEquals(new Item("key"), belt.getInventory());
+        scheduler.tick();
+        assertNull(belt.getInventory());
+        scheduler.tick();
+        assertEquals(new Item("key"), belt.getInventory());
+    }
+
+    /**
+     * Test the order is only recompiled after the topology changes
+     */
+    @Test
+    public void compileIfStaleTest() {
+        TickScheduler scheduler = new TickScheduler(grid);
+        assertFalse(scheduler.compileIfStale());
+
+        Belt other = new Belt(4);
+        grid.setCoordinate(new Coordinate(0, 1), other);
+        assertTrue(scheduler.compileIfStale());
+        assertEquals(2, scheduler.getChainCount());
+
+        belt.setOutput(other.getPath());
+        other.setInput(belt.getPath());
+        receiver.setInput(null);
+        assertTrue(scheduler.compileIfStale());
+        assertEquals(2, scheduler.getChainCount());
+        assertSame(other, scheduler.getTransport(0));
+        assertSame(receiver, scheduler.getTransport(3));
+    }
+
+    /**
+     * Test a cycle of paths is scheduled once
+     */
+    @Test
+    public void cycleTest() {
+        Belt first = new Belt(5);
+        Belt second = new Belt(6);
+        grid.setCoordinate(new Coordinate(0, -1), first);
+        grid.setCoordinate(new Coordinate(1, -1), second);
+        link(first, second, first);
+
+        TickScheduler scheduler = new TickScheduler(grid);
+        assertEquals(2, scheduler.getChainCount());
+        assertEquals(5, scheduler.size());
+    }
+
+    /**
+     * Test relinking the paths of another grid does not make the order stale, while relinking
+     * the paths of this grid does
+     */
+    @Test
+    public void otherGridTest() {
+        TickScheduler scheduler = new TickScheduler(grid);
+        GameGrid other = new GameGrid(1);
+        Belt first = new Belt(7);
+        Belt second = new Belt(8);
+        place(other, 0, 0, first, second);
+        TickScheduler otherScheduler = new TickScheduler(other);
+
+        first.setOutput(null);
+        second.setInput(null);
+        assertTrue(otherScheduler.compileIfStale());
+        assertFalse(scheduler.compileIfStale());
+        assertEquals(1, scheduler.getCompileCount());
+
+        belt.setOutput(null);
+        assertTrue(scheduler.compileIfStale());
+    }
+}
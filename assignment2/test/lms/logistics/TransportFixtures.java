@@ -0,0 +1,41 @@
+package lms.logistics;
+
+import lms.grid.Coordinate;
+import lms.grid.GameGrid;
+
+/**
+ * Builds chains of transports for the tests.
+ */
+public final class TransportFixtures {
+
+    private TransportFixtures() {
+    }
+
+    /**
+     * Links the given transports from first to last.
+     *
+     * @param transports transports to link, in order
+     */
+    public static void link(Transport... transports) {
+        for (int i = 1; i < transports.length; i++) {
+            transports[i - 1].setOutput(transports[i].getPath());
+            transports[i].setInput(transports[i - 1].getPath());
+        }
+    }
+
+    /**
+     * Places the given transports along row r of a grid, left to right from column q, and links
+     * them from first to last.
+     *
+     * @param grid       grid to place them on
+     * @param q          column of the first transport
+     * @param r          row to place them on
+     * @param transports transports to place and link, in order
+     */
+    public static void place(GameGrid grid, int q, int r, Transport... transports) {
+        for (int i = 0; i < transports.length; i++) {
+            grid.setCoordinate(new Coordinate(q + i, r), transports[i]);
+        }
+        link(transports);
+    }
+}
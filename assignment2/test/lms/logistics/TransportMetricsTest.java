@@ -0,0 +1,76 @@
+package lms.logistics;
+
+import lms.grid.GameGrid;
+import lms.logistics.belts.Belt;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static lms.logistics.TransportFixtures.place;
+import static org.junit.Assert.*;
+
+/**
+ * Test TransportMetrics class
+ */
+public class TransportMetricsTest {
+
+    private GameGrid grid;
+    private Producer producer;
+    private Belt first;
+    private Belt second;
+    private Receiver receiver;
+
+    @Before
+    public void setUp() {
+        grid = new GameGrid(2);
+        producer = new Producer(1, new Item("key"));
+        first = new Belt(2);
+        second = new Belt(3);
+        receiver = new Receiver(4, new Item("key"));
+        place(grid, -2, 0, producer, first, second, receiver);
+    }
+
+    /**
+     * Test moves, deliveries and latency are counted along a chain, and nothing is counted once
+     * the metrics are detached
+     */
+    @Test
+    public void chainTest() {
+        Map<Transport, TransportMetrics> metrics = TransportMetrics.attach(grid);
+        TickScheduler scheduler = new TickScheduler(grid);
+        for (int i = 0; i < 20; i++) {
+            scheduler.tick();
+        }
+
+        MetricsSnapshot belt = metrics.get(first).snapshot();
+        MetricsSnapshot received = metrics.get(receiver).snapshot();
+        assertEquals(10, belt.getMoved());
+        assertEquals(0, belt.getBlocked());
+        assertEquals(receiver.getReceivedCount(), received.getDelivered());
+        assertTrue(received.getTimed() > 0 && received.getTimed() < received.getDelivered());
+        assertEquals(5, received.getMaxLatency());
+        assertEquals(5.0, received.getMeanLatency(), 0);
+
+        TransportMetrics.detach(grid);
+        scheduler.tick();
+        assertEquals(belt.getMoved(), metrics.get(first).snapshot().getMoved());
+        assertNull(first.getMetrics());
+    }
+
+    /**
+     * Test an item that cannot move because the next transport is full is counted as blocked
+     */
+    @Test
+    public void blockedTest() {
+        Map<Transport, TransportMetrics> metrics = TransportMetrics.attach(grid);
+        first.setInventory(new Item("key"));
+        second.setInventory(new Item("key"));
+        receiver.restoreInventory(new Item("key"));
+        first.tick();
+        assertEquals(1, metrics.get(first).snapshot().getBlocked());
+        assertEquals(0, metrics.get(first).snapshot().getMoved());
+    }
+}
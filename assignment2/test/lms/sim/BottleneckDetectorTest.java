@@ -0,0 +1,80 @@
+package lms.sim;
+
+import lms.grid.GameGrid;
+import lms.logistics.Item;
+import lms.logistics.TickScheduler;
+import lms.logistics.belts.Belt;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+import org.junit.Test;
+
+import java.util.List;
+
+import static lms.logistics.TransportFixtures.place;
+import static org.junit.Assert.*;
+
+/**
+ * Test BottleneckDetector class
+ */
+public class BottleneckDetectorTest {
+
+    /**
+     * Test a dead-end line backs up into a run that blocks its producer, while a line that flows
+     * freely reports nothing, and a receiver nothing reaches is starved
+     */
+    @Test
+    public void detectTest() {
+        GameGrid grid = new GameGrid(2);
+        Producer blocked = new Producer(1, new Item("key"));
+        Belt first = new Belt(2);
+        Belt last = new Belt(4);
+        place(grid, -2, 0, blocked, first, new Belt(3), last);
+        Producer flowing = new Producer(5, new Item("key"));
+        Receiver fed = new Receiver(7, new Item("key"));
+        place(grid, -2, 1, flowing, new Belt(6), fed);
+        Receiver starved = new Receiver(8, new Item("key"));
+        place(grid, -1, -1, starved);
+
+        BottleneckDetector detector = new BottleneckDetector(new TickScheduler(grid), 5);
+        for (int i = 0; i < 20; i++) {
+            detector.tick();
+        }
+
+        List<BeltRun> runs = detector.getBackedUpRuns(10);
+        assertEquals(1, runs.size());
+        assertSame(first, runs.get(0).getFirst());
+        assertSame(last, runs.get(0).getLast());
+        assertEquals(3, runs.get(0).getLength());
+        assertEquals(List.of(blocked), detector.getBlockedProducers());
+        assertEquals(List.of(starved), detector.getStarvedReceivers());
+        assertTrue(detector.getBackedUpRuns(0).isEmpty());
+    }
+
+    /**
+     * Test a detached detector stops listening to the transports and stops recording
+     */
+    @Test
+    public void detachTest() {
+        GameGrid grid = new GameGrid(2);
+        Producer producer = new Producer(1, new Item("key"));
+        Belt first = new Belt(2);
+        Belt last = new Belt(4);
+        place(grid, -2, 0, producer, first, new Belt(3), last);
+
+        TickScheduler scheduler = new TickScheduler(grid);
+        BottleneckDetector detector = new BottleneckDetector(scheduler, 5);
+        assertNotNull(first.getInventoryListener());
+        detector.detach();
+        assertNull(producer.getInventoryListener());
+        assertNull(first.getInventoryListener());
+        assertNull(last.getInventoryListener());
+
+        for (int i = 0; i < 20; i++) {
+            detector.tick();
+        }
+        detector.update();
+        assertNotNull(last.peekInventory());
+        assertTrue(detector.getBackedUpRuns(10).isEmpty());
+        assertTrue(detector.getBlockedProducers().isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package lms.sim;
+
+import lms.exceptions.FileFormatException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static lms.sim.SimulationFixtures.state;
+import static org.junit.Assert.*;
+
+/**
+ * Test Checkpoint and Checkpointer classes
+ */
+public class CheckpointTest {
+
+    /**
+     * Writes a checkpoint and reads it back.
+     *
+     * @param checkpoint the checkpoint to copy
+     * @return the checkpoint read back
+     */
+    private static Checkpoint copy(Checkpoint checkpoint) throws IOException, FileFormatException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        checkpoint.write(out);
+        return Checkpoint.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Test a full checkpoint and a delta restore the state and the tick count, and the simulation
+     * carries on exactly as it did the first time
+     */
+    @Test
+    public void restoreTest() throws IOException, FileFormatException {
+        Simulator simulator = Simulator.load("saves/gridNumberedExample.txt");
+        List<Checkpoint> saved = new ArrayList<>();
+        simulator.run(5);
+        saved.add(copy(simulator.checkpoint()));
+        simulator.run(3);
+        Checkpoint delta = simulator.checkpoint();
+        saved.add(copy(delta));
+        String atCheckpoint = state(simulator);
+        simulator.run(20);
+        String later = state(simulator);
+
+        assertTrue(saved.get(0).isFull());
+        assertFalse(delta.isFull());
+        assertTrue(delta.size() < saved.get(0).size());
+
+        Simulator resumed = Simulator.load("saves/gridNumberedExample.txt");
+        resumed.restore(saved);
+        assertEquals(atCheckpoint, state(resumed));
+        resumed.run(20);
+        assertEquals(later, state(resumed));
+    }
+
+    /**
+     * Test a list of checkpoints not starting with a full checkpoint is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void deltaOnlyTest() throws IOException, FileFormatException {
+        Simulator simulator = Simulator.load("saves/grid3.txt");
+        simulator.checkpoint();
+        simulator.run(2);
+        simulator.restore(List.of(simulator.checkpoint()));
+    }
+}
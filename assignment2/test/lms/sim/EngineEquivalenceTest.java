@@ -0,0 +1,98 @@
+package lms.sim;
+
+import lms.exceptions.FileFormatException;
+import lms.logistics.TickScheduler;
+import lms.utility.Tickable;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static lms.sim.SimulationFixtures.SAVES;
+import static lms.sim.SimulationFixtures.save;
+import static lms.sim.SimulationFixtures.state;
+import static org.junit.Assert.*;
+
+/**
+ * Test every engine ticks exactly as TickScheduler does
+ */
+@RunWith(Parameterized.class)
+public class EngineEquivalenceTest {
+
+    private final Function<TickScheduler, Tickable> engine;
+
+    public EngineEquivalenceTest(String name, Function<TickScheduler, Tickable> engine) {
+        this.engine = engine;
+    }
+
+    @Parameters(name = "{0}")
+    public static List<Object[]> engines() {
+        return List.<Object[]>of(
+                engine("kernel", ArrayTickKernel::new),
+                engine("sparse", SparseTickEngine::new),
+                engine("parallel", scheduler -> new ParallelTickEngine(scheduler,
+                        ForkJoinPool.commonPool(), 1)));
+    }
+
+    /**
+     * Returns the parameters for one engine.
+     *
+     * @param name   the name of the engine
+     * @param engine creates the engine for a scheduler
+     * @return the test parameters
+     */
+    private static Object[] engine(String name, Function<TickScheduler, Tickable> engine) {
+        return new Object[]{name, engine};
+    }
+
+    /**
+     * Creates a simulation of the given save ticked by the engine under test.
+     *
+     * @param save the name of the save
+     * @return the simulation
+     */
+    private Simulator load(String save) throws IOException, FileFormatException {
+        Simulator loaded = Simulator.load(save(save));
+        return new Simulator(loaded.getGrid(),
+                engine.apply(new TickScheduler(loaded.getGrid())));
+    }
+
+    /**
+     * Test the engine leaves every transport of every save in the same state as the scheduler
+     * after every tick
+     */
+    @Test
+    public void matchesSchedulerTest() throws IOException, FileFormatException {
+        for (String save : SAVES) {
+            Simulator expected = Simulator.load(save(save));
+            Simulator actual = load(save);
+            for (int tick = 0; tick < 30; tick++) {
+                expected.step();
+                actual.step();
+                assertEquals(save + " tick " + tick, state(expected), state(actual));
+            }
+            assertEquals(expected.getDelivered(), actual.getDelivered());
+        }
+    }
+
+    /**
+     * Test restoring a checkpoint carries on from the restored state
+     */
+    @Test
+    public void restoreTest() throws IOException, FileFormatException {
+        Simulator expected = Simulator.load(save("gridNumberedExample"));
+        Simulator actual = load("gridNumberedExample");
+        expected.run(7);
+        actual.run(4);
+        actual.restore(List.of(expected.checkpoint()));
+        expected.run(15);
+        actual.run(15);
+        assertEquals(expected.getDelivered(), actual.getDelivered());
+        assertEquals(state(expected), state(actual));
+    }
+}
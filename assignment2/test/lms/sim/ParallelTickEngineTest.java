@@ -0,0 +1,53 @@
+package lms.sim;
+
+import lms.exceptions.BadStateException;
+import lms.grid.GameGrid;
+import lms.logistics.Item;
+import lms.logistics.TickScheduler;
+import lms.logistics.belts.Belt;
+import lms.logistics.container.Receiver;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static lms.logistics.TransportFixtures.place;
+import static org.junit.Assert.*;
+
+/**
+ * Test ParallelTickEngine class
+ */
+public class ParallelTickEngineTest {
+
+    /**
+     * Test a receiver given the wrong item fails the tick only after every other batch has
+     * finished it
+     */
+    @Test
+    public void failureWaitsForBatchesTest() {
+        GameGrid grid = new GameGrid(4);
+        Receiver wrong = new Receiver(1, new Item("key"));
+        wrong.restoreInventory(new Item("other"));
+        place(grid, 0, -4, wrong);
+        List<Belt> ends = new ArrayList<>();
+        for (int r = -3; r <= 3; r++) {
+            Belt full = new Belt(10 + 2 * (r + 3));
+            Belt end = new Belt(11 + 2 * (r + 3));
+            full.setInventory(new Item("key"));
+            place(grid, Math.max(-4, -4 - r), r, full, end);
+            ends.add(end);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelTickEngine engine = new ParallelTickEngine(new TickScheduler(grid), pool, 1);
+            assertEquals(8, engine.getBatchCount());
+            assertThrows(BadStateException.class, engine::tick);
+            for (Belt end : ends) {
+                assertNotNull(end.peekInventory());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package lms.sim;
+
+import lms.grid.GameGrid;
+import lms.logistics.container.Producer;
+import lms.logistics.container.Receiver;
+
+import java.util.List;
+
+/**
+ * Saves and state descriptions shared by the simulation tests.
+ */
+final class SimulationFixtures {
+
+    /**
+     * Example saves that load, by name within the saves directory
+     */
+    static final List<String> SAVES = List.of("gridNumberedExample", "grid2", "grid3",
+            "simpleGrid1");
+
+    private SimulationFixtures() {
+    }
+
+    /**
+     * Returns the path of the given example save.
+     *
+     * @param save the name of the save
+     * @return the path to load it from
+     */
+    static String save(String save) {
+        return "saves/" + save + ".txt";
+    }
+
+    /**
+     * Describes the tick state of every transport on a grid.
+     *
+     * @param grid the grid to describe
+     * @return the item of every transport, with the counter of producers and receivers
+     */
+    static String state(GameGrid grid) {
+        StringBuilder sb = new StringBuilder();
+        grid.transports().forEach(transport -> {
+            sb.append(' ').append(transport.peekInventory());
+            if (transport instanceof Producer producer) {
+                sb.append('/').append(producer.getCounter());
+            } else if (transport instanceof Receiver receiver) {
+                sb.append('/').append(receiver.getReceivedCount());
+            }
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Describes the tick state of a simulation, bringing its engine up to date first.
+     *
+     * @param simulator the simulation to describe
+     * @return the tick count, then the state of every transport as by {@link #state(GameGrid)}
+     */
+    static String state(Simulator simulator) {
+        simulator.getDelivered(); // syncs the engine
+        return simulator.getTicks() + ":" + state(simulator.getGrid());
+    }
+}
@@ -0,0 +1,55 @@
+package lms.sim;
+
+import lms.exceptions.FileFormatException;
+import lms.logistics.TickScheduler;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static lms.sim.SimulationFixtures.SAVES;
+import static lms.sim.SimulationFixtures.save;
+import static lms.sim.SimulationFixtures.state;
+import static org.junit.Assert.*;
+
+/**
+ * Test Simulator class
+ */
+public class SimulatorTest {
+
+    /**
+     * Test advancing leaves every save in the same state as running the same number of ticks
+     */
+    @Test
+    public void advanceTest() throws IOException, FileFormatException {
+        for (String save : SAVES) {
+            for (long ticks : new long[]{0, 1, 7, 100_001}) {
+                Simulator expected = Simulator.load(save(save));
+                Simulator actual = Simulator.load(save(save));
+                expected.run(ticks);
+                SimulationResult result = actual.advance(ticks);
+                assertEquals(save + " " + ticks, state(expected), state(actual));
+                assertEquals(ticks, result.getTicks());
+                assertEquals(expected.getDelivered(), result.getDelivered());
+            }
+        }
+    }
+
+    /**
+     * Test advancing a billion ticks skips the cycle rather than running it, with every engine
+     */
+    @Test(timeout = 10_000)
+    public void advanceFarTest() throws IOException, FileFormatException {
+        Simulator expected = Simulator.load(save("gridNumberedExample"));
+        long first = expected.run(1_000_000).getDelivered();
+        long steady = expected.run(1_000_000).getDelivered();
+        Simulator loaded = Simulator.load(save("gridNumberedExample"));
+        Simulator sparse = Simulator.load(save("gridNumberedExample"));
+        Simulator[] simulators = {loaded, new Simulator(sparse.getGrid(),
+                new SparseTickEngine(new TickScheduler(sparse.getGrid())))};
+        for (Simulator simulator : simulators) {
+            SimulationResult result = simulator.advance(1_000_000_000L);
+            assertEquals(first + 999 * steady, result.getDelivered());
+            assertEquals(1_000_000_000L, simulator.getTicks());
+        }
+    }
+}
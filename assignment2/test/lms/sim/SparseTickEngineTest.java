@@ -0,0 +1,37 @@
+package lms.sim;
+
+import lms.grid.GameGrid;
+import lms.logistics.Item;
+import lms.logistics.TickScheduler;
+import lms.logistics.Transport;
+import lms.logistics.belts.Belt;
+import lms.logistics.container.Producer;
+import org.junit.Test;
+
+import static lms.logistics.TransportFixtures.place;
+import static org.junit.Assert.*;
+
+/**
+ * Test SparseTickEngine class
+ */
+public class SparseTickEngineTest {
+
+    /**
+     * Test a line that has backed up to its producer leaves nothing to tick but the producer
+     */
+    @Test
+    public void idleTest() {
+        GameGrid grid = new GameGrid(2);
+        Transport[] line = {new Producer(1, new Item("key")), new Belt(2), new Belt(3)};
+        place(grid, -1, 0, line);
+        SparseTickEngine engine = new SparseTickEngine(new TickScheduler(grid));
+        for (int tick = 0; tick < 10; tick++) {
+            engine.tick();
+        }
+        assertEquals(0, engine.getActiveCount());
+        assertNotNull(line[1].peekInventory());
+        assertNotNull(line[2].peekInventory());
+        engine.sync();
+        assertEquals(10, ((Producer) line[0]).getCounter());
+    }
+}
@@ -0,0 +1,107 @@
+package lms.utility;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test AsyncLogAppender class
+ */
+public class AsyncLogAppenderTest {
+
+    /**
+     * A stream that holds up the first write until it is released.
+     */
+    private static class StalledStream extends OutputStream {
+
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void write(int b) throws IOException {
+            writing.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            synchronized (written) {
+                written.write(b);
+            }
+        }
+
+        @Override
+        public String toString() {
+            synchronized (written) {
+                return written.toString().replace(System.lineSeparator(), "\n");
+            }
+        }
+    }
+
+    /**
+     * Test flushing waits for every message, and messages are written in the order appended
+     */
+    @Test(timeout = 5_000)
+    public void flushOrderTest() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsyncLogAppender appender = new AsyncLogAppender(new PrintStream(bytes, true), 1024);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            appender.append(LogLevel.INFO, "Source", "message " + i, null);
+            expected.append("[INFO] Source: message ").append(i).append('\n');
+        }
+        appender.flush();
+        assertEquals(expected.toString(), bytes.toString().replace(System.lineSeparator(), "\n"));
+    }
+
+    /**
+     * Test messages below WARN are dropped and counted when the buffer is full
+     */
+    @Test(timeout = 5_000)
+    public void dropTest() throws InterruptedException {
+        StalledStream stream = new StalledStream();
+        AsyncLogAppender appender = new AsyncLogAppender(new PrintStream(stream, true), 2);
+        appender.append(LogLevel.INFO, "Source", "first", null);
+        assertTrue(stream.writing.await(1, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            appender.append(LogLevel.DEBUG, "Source", "queued " + i, null);
+        }
+        stream.released.countDown();
+        appender.flush();
+        assertEquals("[INFO] Source: first\n"
+                + "[WARN] AsyncLogAppender: 3 log messages dropped\n"
+                + "[DEBUG] Source: queued 0\n"
+                + "[DEBUG] Source: queued 1\n", stream.toString());
+    }
+
+    /**
+     * Test a WARN message waits for room in a full buffer rather than being dropped
+     */
+    @Test(timeout = 5_000)
+    public void warnWaitsTest() throws InterruptedException {
+        StalledStream stream = new StalledStream();
+        AsyncLogAppender appender = new AsyncLogAppender(new PrintStream(stream, true), 1);
+        appender.append(LogLevel.INFO, "Source", "first", null);
+        assertTrue(stream.writing.await(1, TimeUnit.SECONDS));
+        appender.append(LogLevel.INFO, "Source", "second", null);
+        Thread warning = new Thread(() -> appender.append(LogLevel.WARN, "Source", "warn", null));
+        warning.start();
+        warning.join(200);
+        assertTrue(warning.isAlive());
+
+        stream.released.countDown();
+        warning.join();
+        appender.flush();
+        assertEquals("[INFO] Source: first\n[INFO] Source: second\n[WARN] Source: warn\n",
+                stream.toString());
+    }
+}
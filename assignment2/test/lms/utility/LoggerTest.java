@@ -0,0 +1,68 @@
+package lms.utility;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test Logger class
+ */
+public class LoggerTest {
+
+    private final Logger logger = Logger.getLogger(LoggerTest.class);
+    private final List<String> appended = new ArrayList<>();
+    private LogLevel level;
+
+    @Before
+    public void setUp() {
+        level = Logger.getLevel();
+        Logger.setAppender((level, source, message, error) ->
+                appended.add(level + " " + source + ": " + message));
+    }
+
+    @After
+    public void tearDown() {
+        Logger.setLevel(level);
+        Logger.setAppender(new AsyncLogAppender(System.err, 1024));
+    }
+
+    /**
+     * Test only messages at or above the threshold reach the appender, and OFF discards them all
+     */
+    @Test
+    public void levelTest() {
+        Logger.setLevel(LogLevel.WARN);
+        logger.debug(() -> "debug");
+        logger.info(() -> "info");
+        logger.warn(() -> "warn");
+        logger.error(() -> "error");
+        assertEquals(List.of("WARN LoggerTest: warn", "ERROR LoggerTest: error"), appended);
+        assertFalse(logger.isEnabled(LogLevel.INFO));
+        assertTrue(logger.isEnabled(LogLevel.WARN));
+
+        Logger.setLevel(LogLevel.OFF);
+        logger.error(() -> "error");
+        assertEquals(2, appended.size());
+        assertFalse(logger.isEnabled(LogLevel.OFF));
+    }
+
+    /**
+     * Test a message is only created if its level is enabled
+     */
+    @Test
+    public void lazyTest() {
+        int[] calls = {0};
+        Logger.setLevel(LogLevel.INFO);
+        logger.trace(() -> "trace " + ++calls[0]);
+        logger.debug(() -> "debug " + ++calls[0]);
+        assertEquals(0, calls[0]);
+        logger.info(() -> "info " + ++calls[0]);
+        assertEquals(1, calls[0]);
+        assertEquals(List.of("INFO LoggerTest: info 1"), appended);
+    }
+}